@@ -0,0 +1,87 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.recording.EventRecorder;
+import airport.recording.EventType;
+import airport.recording.RecordingDump;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Events per second the recorder sustains with 1 to 8 threads recording flat out,
+// rotating through 16 MB segments, and the cost per event on the recording thread.
+// Every event must read back, and every recording thread's plane must have a name; exits with status 1 otherwise.
+// EventRecorderBenchmark [events per thread] [directory]
+public class EventRecorderBenchmark {
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8 };
+
+    public static void main(String[] args) throws Exception {
+        int eventsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path directory = args.length > 1 ? Paths.get(args[1]) : Files.createTempDirectory("recording-bench");
+
+        System.out.println("Event recorder benchmark, " + eventsPerThread + " events per thread into " + directory);
+        System.out.printf("%8s | %14s %12s | %10s%n", "threads", "events/s", "ns/event", "segments");
+        boolean passed = true;
+        for (int round = 1; round <= 2; round++) {
+            for (int threads : THREAD_COUNTS) {
+                passed &= run(directory, threads, eventsPerThread, round == 2); // First round is warm-up
+            }
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(Path directory, int threadCount, int eventsPerThread, boolean report)
+            throws InterruptedException, IOException {
+        EventRecorder recorder = EventRecorder.start(directory, 16 << 20, 1024);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int planeId = t + 1;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    EventRecorder.record(EventType.TASK_STARTED, planeId, i & 7);
+                }
+            }));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        recorder.close();
+
+        long[] written = new long[1];
+        RecordingDump.read(directory, (nanos, planeId, type, resourceId) -> written[0]++);
+        long total = (long) threadCount * eventsPerThread;
+        int named = RecordingDump.readPlaneNames(directory).size();
+        if (report) {
+            long segments;
+            try (var files = Files.list(directory)) {
+                segments = files.filter(p -> p.getFileName().toString().endsWith(".bin")).count();
+            }
+            System.out.printf("%8d | %,14.0f %12.1f | %10d%n", threadCount,
+                    total * 1e9 / elapsed, (double) elapsed * threadCount / total, segments);
+        }
+        if (written[0] == total && named == threadCount) {
+            return true;
+        }
+        System.out.println("  FAILED: " + written[0] + " of " + total + " records read back, "
+                + named + " of " + threadCount + " planes named");
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.models.Runway;
+import airport.threads.AirTrafficControl;
+import airport.threads.CrewPool;
+import airport.threads.EmbarkPassenger;
+import airport.threads.Plane;
+import airport.threads.RefuellingFleet;
+import airport.utils.ExecutionMode;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Starts N planes in the given execution mode and reports how many could run at once
+// and the memory each one costs. ATC is not started, so every plane stays in the air
+// (sleeping until its arrival slot or waiting for clearance) and holds exactly one thread.
+//
+// Usage: ExecutionModeBenchmark <platform|virtual> <planes>
+public class ExecutionModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        ExecutionMode mode = ExecutionMode.valueOf(args[0].toUpperCase());
+        int planeCount = Integer.parseInt(args[1]);
+        ExecutionMode.setCurrent(mode);
+
+        Runway runway = new Runway();
+        List<Gate> gates = new ArrayList<>();
+        gates.add(new Gate(1));
+        AirTrafficControl atc = new AirTrafficControl(runway, gates);
+        RefuellingFleet refuellingFleet = new RefuellingFleet(1);
+        CrewPool cleaningCrews = CrewPool.cleaning(1, 1);
+        CrewPool supplyCrews = CrewPool.supply(1, 1);
+
+        long rssBefore = readRssKb();
+        long heapBefore = usedHeap();
+
+        List<Plane> planes = new ArrayList<>(planeCount);
+        int started = 0;
+        String failure = null;
+        long startNanos = System.nanoTime();
+        try {
+            for (int i = 1; i <= planeCount; i++) {
+                String planeName = "Plane-" + i;
+                Plane plane = new Plane(i, atc, refuellingFleet, cleaningCrews, supplyCrews,
+                        new EmbarkPassenger(planeName));
+                plane.start();
+                planes.add(plane);
+                started++;
+            }
+        } catch (OutOfMemoryError e) {
+            failure = e.getMessage();
+        }
+        long startMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        Thread.sleep(500); // Let the threads settle into their sleep
+        long rssAfter = readRssKb();
+        long heapAfter = usedHeap();
+
+        System.out.printf("mode=%s requested=%d started=%d%s%n", mode, planeCount, started,
+                failure == null ? "" : " (failed: " + failure + ")");
+        System.out.printf("start time: %d ms, live JVM platform threads: %d%n",
+                startMillis, ManagementFactory.getThreadMXBean().getThreadCount());
+        if (started > 0) {
+            System.out.printf("RSS: +%d MB (%.1f KB per plane), heap: +%d MB (%.1f KB per plane)%n",
+                    (rssAfter - rssBefore) / 1024, (double) (rssAfter - rssBefore) / started,
+                    (heapAfter - heapBefore) / (1024 * 1024), (heapAfter - heapBefore) / 1024.0 / started);
+        }
+        System.exit(0);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Resident set size from /proc (Linux only), platform thread stacks do not show up in the heap
+    private static long readRssKb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not on Linux, RSS is reported as 0
+        }
+        return 0;
+    }
+}
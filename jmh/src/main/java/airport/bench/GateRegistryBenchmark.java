@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.models.GateRegistry;
+import java.util.ArrayList;
+import java.util.List;
+
+// Gate lookups as the ATC hot path does them, linear scan vs GateRegistry, from 3 to 1,000 gates.
+// All gates but the last are occupied, which is the worst case for the scan in both lookups.
+public class GateRegistryBenchmark {
+    private static final int[] GATE_COUNTS = { 3, 10, 100, 1000 };
+    private static final int LOOKUPS = 200_000;
+
+    private static long sink; // Keeps the JIT from dropping the lookups
+
+    public static void main(String[] args) {
+        System.out.println("Gate lookup benchmark, ns per lookup (all gates but the last occupied)");
+        System.out.printf("%6s | %14s %14s | %14s %14s%n", "gates",
+                "scan: free", "scan: plane", "index: free", "index: plane");
+        for (int round = 1; round <= 2; round++) {
+            for (int gateCount : GATE_COUNTS) {
+                run(gateCount, round == 2); // First round is warm-up
+            }
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void run(int gateCount, boolean report) {
+        List<Gate> gates = new ArrayList<>();
+        for (int i = 1; i <= gateCount; i++) {
+            gates.add(new Gate(i));
+        }
+        GateRegistry registry = new GateRegistry(gates);
+        for (int i = 0; i < gateCount - 1; i++) {
+            gates.get(i).occupy(i + 1);
+        }
+        int lastPlane = gateCount - 1;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            sink += scanAvailableGate(gates).getGateNumber();
+        }
+        long scanFree = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            sink += scanGateForPlane(gates, lastPlane).getGateNumber();
+        }
+        long scanPlane = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            sink += registry.findAvailableGate().getGateNumber();
+        }
+        long indexFree = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            sink += registry.getGateForPlane(lastPlane).getGateNumber();
+        }
+        long indexPlane = System.nanoTime() - start;
+
+        if (report) {
+            System.out.printf("%6d | %14.1f %14.1f | %14.1f %14.1f%n", gateCount,
+                    (double) scanFree / LOOKUPS, (double) scanPlane / LOOKUPS,
+                    (double) indexFree / LOOKUPS, (double) indexPlane / LOOKUPS);
+        }
+    }
+
+    // The lookups AirTrafficControl used to do
+    private static Gate scanAvailableGate(List<Gate> gates) {
+        for (Gate gate : gates) {
+            if (!gate.isOccupied()) {
+                return gate;
+            }
+        }
+        return null;
+    }
+
+    private static Gate scanGateForPlane(List<Gate> gates, int planeId) {
+        for (Gate gate : gates) {
+            if (gate.getOccupiedById() == planeId) {
+                return gate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.RunwayPool;
+import airport.sim.AirportSimulation;
+import airport.utils.Statistics;
+
+// Landing wait with landings only cleared once a gate is free, against look-ahead clearance for gates
+// predicted to be free by the time the plane reaches the stand. Dense arrivals on the discrete-event
+// simulation with the gates as the limit; ground slots are gates + spare, since a plane cleared ahead
+// of its gate still needs a free slot.
+// Every run must see all flights depart and leave the gates empty, including look-ahead on a single
+// runway held until docked, which once deadlocked. Exits with status 1 otherwise.
+//
+// Usage: LookAheadBenchmark [flights] [arrival interval ms] [gates] [spare ground slots]
+public class LookAheadBenchmark {
+
+    public static void main(String[] args) {
+        int flights = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long interval = args.length > 1 ? Long.parseLong(args[1]) : 3500;
+        int gates = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int spare = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        System.out.println("Look-ahead landings, " + flights + " flights arriving every " + interval + " ms, "
+                + gates + " gates, " + (gates + spare) + " ground slots (virtual time)");
+        System.out.printf("%-12s %14s %18s %18s%n", "look-ahead", "flights/hour", "landing wait avg", "landing wait P99");
+        boolean passed = run(false, flights, interval, gates, spare);
+        passed &= run(true, flights, interval, gates, spare);
+        passed &= checkRunwayHeldUntilDocked();
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(boolean lookAhead, int flights, long interval, int gates, int spare) {
+        AirportSimulation simulation = new AirportSimulation(gates, RunwayPool.fromSpec("LT"), 4, gates + spare, 42, false);
+        simulation.setLookAhead(lookAhead);
+        long departedBefore = Statistics.getPlanesDeparted();
+        simulation.scheduleArrivals(flights, interval);
+        simulation.run();
+
+        double hours = simulation.getVirtualTimeMillis() / 3_600_000.0;
+        System.out.printf("%-12s %14.1f %16.2f s %16.2f s%n", lookAhead ? "on" : "off", flights / hours,
+                simulation.getLandingWait().getMean() / 1_000_000.0,
+                simulation.getLandingWait().getPercentile(99) / 1_000_000.0);
+        System.out.println("  " + simulation.getLookAheadSummary());
+        return check(simulation, flights, Statistics.getPlanesDeparted() - departedBefore);
+    }
+
+    // A plane holding at the stand with the only runway must not keep the gate's holder from taking off
+    private static boolean checkRunwayHeldUntilDocked() {
+        int flights = 200;
+        AirportSimulation simulation = new AirportSimulation(2, RunwayPool.fromSpec("1"), 4, 4, 42, false);
+        simulation.setLookAhead(true);
+        simulation.setRunwayHeldUntilDocked(true);
+        long departedBefore = Statistics.getPlanesDeparted();
+        simulation.scheduleArrivals(flights, 1500);
+        simulation.run();
+        System.out.println("Runway held until docked: " + simulation.getLookAheadSummary());
+        return check(simulation, flights, Statistics.getPlanesDeparted() - departedBefore);
+    }
+
+    private static boolean check(AirportSimulation simulation, int flights, long departed) {
+        boolean gatesEmpty = simulation.getGateStatusCheck().contains("PASSED");
+        if (departed == flights && gatesEmpty) {
+            return true;
+        }
+        System.out.println("  FAILED: " + departed + " of " + flights + " flights departed, gates "
+                + (gatesEmpty ? "empty" : "still occupied"));
+        return false;
+    }
+}
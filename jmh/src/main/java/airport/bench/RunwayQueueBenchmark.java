@@ -0,0 +1,146 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.RunwayQueue;
+import airport.models.RunwayRequest;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+// Compares the old LinkedList runway queue with RunwayQueue when 10k requests are waiting.
+// The airport is "full", so every landing is ineligible and only takeoffs can be served,
+// which is the case where the old queue had to walk every landing on every tick.
+public class RunwayQueueBenchmark {
+    private static final int QUEUED_REQUESTS = 10_000;
+    private static final int TAKEOFFS = 1_000; // Queued behind the landings
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.println("Runway queue benchmark: " + QUEUED_REQUESTS + " queued requests, "
+                + TAKEOFFS + " of them takeoffs");
+        for (int round = 1; round <= ROUNDS; round++) {
+            // The first rounds are warm-up
+            boolean report = round == ROUNDS;
+            runLegacy(report);
+            runIndexed(report);
+        }
+    }
+
+    private static void runLegacy(boolean report) {
+        LegacyQueue queue = new LegacyQueue();
+
+        long start = System.nanoTime();
+        enqueueAll(queue);
+        long enqueueNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUEUED_REQUESTS; i++) {
+            queue.requestLanding(planeId(i)); // Duplicates, all rejected
+        }
+        long duplicateNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int served = 0;
+        while (queue.serveFirstEligible(false) != null) {
+            served++;
+        }
+        long serveNanos = System.nanoTime() - start;
+
+        if (report) {
+            print("LinkedList (old)", enqueueNanos, duplicateNanos, serveNanos, served);
+        }
+    }
+
+    private static void runIndexed(boolean report) {
+        RunwayQueue queue = new RunwayQueue();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < QUEUED_REQUESTS; i++) {
+            boolean landing = i < QUEUED_REQUESTS - TAKEOFFS;
+            queue.offer(new RunwayRequest(planeId(i), landing, 1));
+        }
+        long enqueueNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUEUED_REQUESTS; i++) {
+            queue.offer(new RunwayRequest(planeId(i), true, 1)); // Duplicates, all rejected
+        }
+        long duplicateNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int served = 0;
+        RunwayRequest takeoff;
+        while ((takeoff = queue.peekTakeoff()) != null) {
+            queue.remove(takeoff);
+            served++;
+        }
+        long serveNanos = System.nanoTime() - start;
+
+        if (report) {
+            print("RunwayQueue (new)", enqueueNanos, duplicateNanos, serveNanos, served);
+        }
+    }
+
+    private static void enqueueAll(LegacyQueue queue) {
+        for (int i = 0; i < QUEUED_REQUESTS; i++) {
+            if (i < QUEUED_REQUESTS - TAKEOFFS) {
+                queue.requestLanding(planeId(i));
+            } else {
+                queue.requestTakeoff(planeId(i));
+            }
+        }
+    }
+
+    private static int planeId(int i) {
+        return i + 1;
+    }
+
+    private static void print(String label, long enqueueNanos, long duplicateNanos, long serveNanos, int served) {
+        System.out.printf("%-18s enqueue %8.1f ns/op | duplicate check %8.1f ns/op | serve %10.1f ns/op (%d served)%n",
+                label,
+                (double) enqueueNanos / QUEUED_REQUESTS,
+                (double) duplicateNanos / QUEUED_REQUESTS,
+                (double) serveNanos / Math.max(1, served),
+                served);
+    }
+
+    // Copy of the queue handling AirTrafficControl used before RunwayQueue
+    private static class LegacyQueue {
+        private final LinkedList<RunwayRequest> runwayQueue = new LinkedList<>();
+
+        void requestLanding(int planeId) {
+            boolean alreadyInQueue = runwayQueue.stream()
+                .anyMatch(req -> req.getPlaneId() == planeId && req.isLanding());
+            if (!alreadyInQueue) {
+                runwayQueue.offer(new RunwayRequest(planeId, true, 1));
+            }
+        }
+
+        void requestTakeoff(int planeId) {
+            boolean alreadyInQueue = runwayQueue.stream()
+                .anyMatch(req -> req.getPlaneId() == planeId && !req.isLanding());
+            if (!alreadyInQueue) {
+                runwayQueue.offer(new RunwayRequest(planeId, false, 1));
+            }
+        }
+
+        RunwayRequest serveFirstEligible(boolean canLand) {
+            Iterator<RunwayRequest> iterator = runwayQueue.iterator();
+            while (iterator.hasNext()) {
+                RunwayRequest request = iterator.next();
+                if (!request.isLanding() || canLand) {
+                    iterator.remove();
+                    return request;
+                }
+            }
+            return null;
+        }
+    }
+}
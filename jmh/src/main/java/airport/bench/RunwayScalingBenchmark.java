@@ -0,0 +1,54 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Runway;
+import airport.models.RunwayPool;
+import airport.sim.AirportSimulation;
+
+// Saturated throughput against runway count and layout, on the discrete-event simulation.
+// All flights arrive within the first seconds and there are enough gates and ground slots
+// that the runways (or the ground services behind them) are the limit.
+//
+// Usage: RunwayScalingBenchmark [flights] [gates] [refuelling trucks]
+public class RunwayScalingBenchmark {
+    private static final String[] LAYOUTS = { "1", "2", "3", "4", "LT", "LLT", "LTT" };
+
+    public static void main(String[] args) {
+        int flights = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int gates = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int trucks = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        System.out.println("Runway scaling, " + flights + " flights, " + gates + " gates, "
+                + trucks + " refuelling trucks (virtual time)");
+        System.out.printf("%-8s %-18s %12s %14s%n", "runways", "strategy", "hours", "flights/hour");
+        for (String layout : LAYOUTS) {
+            for (RunwayPool.Strategy strategy : RunwayPool.Strategy.values()) {
+                RunwayPool runways = RunwayPool.fromSpec(layout);
+                runways.setStrategy(strategy);
+                AirportSimulation simulation = new AirportSimulation(gates, runways, trucks, gates, 42, false);
+                simulation.scheduleArrivals(flights, 1);
+                simulation.run();
+
+                double hours = simulation.getVirtualTimeMillis() / 3_600_000.0;
+                System.out.printf("%-8s %-18s %12.2f %14.1f   busy:%s%n", layout, strategy, hours,
+                        flights / hours, utilization(runways, simulation.getVirtualTimeMillis()));
+            }
+        }
+    }
+
+    private static String utilization(RunwayPool runways, long virtualMillis) {
+        StringBuilder sb = new StringBuilder();
+        for (Runway runway : runways.getRunways()) {
+            sb.append(String.format(" %.0f%%", 100.0 * runway.getBusyNanos() / (virtualMillis * 1_000_000.0)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.RunwayPool;
+import airport.scenario.Scenario;
+import airport.sim.AirportSimulation;
+import java.io.BufferedWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes a scenario with millions of flights and runs it on the discrete-event simulation,
+// either streamed from the file or with every arrival scheduled up front, and reports the
+// heap high-water mark. Run with a small heap (e.g. -Xmx64m) to see the difference.
+//
+// Usage: ScenarioStreamingBenchmark <stream|upfront> [flights]
+public class ScenarioStreamingBenchmark {
+    private static final int GATES = 50;
+    private static final long ARRIVAL_INTERVAL = 1500; // Below the capacity of 4 runways, so the ground stays bounded
+
+    public static void main(String[] args) throws Exception {
+        boolean stream = args[0].equalsIgnoreCase("stream");
+        int flights = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        Path file = Files.createTempFile("scenario", ".txt");
+        try {
+            writeScenario(file, flights);
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                pool.resetPeakUsage();
+            }
+            long startNanos = System.nanoTime();
+            AirportSimulation simulation = new AirportSimulation(GATES, RunwayPool.fromSpec("4"), 8, GATES, 42, false);
+            try (Scenario scenario = Scenario.open(file)) {
+                if (stream) {
+                    simulation.scheduleArrivals(scenario);
+                } else {
+                    simulation.scheduleArrivals(flights, ARRIVAL_INTERVAL);
+                }
+                simulation.run();
+            }
+            long wallMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+            System.out.printf("%s: %d flights, scenario file %d MB, %.1f virtual hours, %d ms wall%n",
+                    stream ? "stream" : "upfront", flights, Files.size(file) / (1024 * 1024),
+                    simulation.getVirtualTimeMillis() / 3_600_000.0, wallMillis);
+            System.out.printf("peak heap: %d MB (max heap %d MB)%n",
+                    peakHeap() / (1024 * 1024), Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeScenario(Path file, int flights) throws Exception {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("gates = " + GATES + "\nrunways = 4\nrefuelling_trucks = 8\n");
+            out.write("max_planes_on_ground = " + GATES + "\n[arrivals]\n");
+            for (int i = 1; i <= flights; i++) {
+                out.write(Long.toString(i * ARRIVAL_INTERVAL));
+                out.write(",Plane-");
+                out.write(Integer.toString(i));
+                out.write('\n');
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
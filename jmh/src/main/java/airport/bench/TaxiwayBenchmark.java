@@ -0,0 +1,84 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Runway;
+import airport.models.RunwayPool;
+import airport.models.TaxiwayPool;
+import airport.sim.AirportSimulation;
+import airport.utils.Statistics;
+
+// Runway throughput with the runway held until the plane has docked, against separate runway,
+// taxiway and gate stand segments where the runway is free once the plane is on a taxiway.
+// Dense arrivals on the discrete-event simulation, with enough gates, ground slots and ground
+// services that the runways are the limit. Every run must see all flights depart and leave the
+// gates empty, otherwise it exits with status 1.
+//
+// Usage: TaxiwayBenchmark [flights] [arrival interval ms] [gates]
+public class TaxiwayBenchmark {
+    private static final String[] LAYOUTS = { "1", "LT", "LLTTT" };
+    private static final int[] CAPACITIES = { 1, 2, 4 };
+
+    public static void main(String[] args) {
+        int flights = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long interval = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        int gates = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        System.out.println("Runway / taxiway segments, " + flights + " flights arriving every " + interval
+                + " ms, " + gates + " gates (virtual time)");
+        System.out.printf("%-8s %-22s %14s %20s %18s%n", "runways", "ground movement", "flights/hour",
+                "runway per landing", "taxiway wait P99");
+        boolean passed = true;
+        for (String layout : LAYOUTS) {
+            passed &= run(layout, "held until docked", null, flights, interval, gates);
+            for (int capacity : CAPACITIES) {
+                passed &= run(layout, "1 taxiway x " + capacity, new TaxiwayPool(1, capacity), flights, interval, gates);
+            }
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String layout, String name, TaxiwayPool taxiways, int flights, long interval, int gates) {
+        RunwayPool runways = RunwayPool.fromSpec(layout);
+        AirportSimulation simulation = new AirportSimulation(gates, runways, gates, gates, 42, false);
+        simulation.setRunwayHeldUntilDocked(taxiways == null);
+        if (taxiways != null) {
+            simulation.setTaxiways(taxiways);
+        }
+        long departedBefore = Statistics.getPlanesDeparted();
+        simulation.scheduleArrivals(flights, interval);
+        simulation.run();
+        long departed = Statistics.getPlanesDeparted() - departedBefore;
+
+        double hours = simulation.getVirtualTimeMillis() / 3_600_000.0;
+        long landings = 0;
+        long landingNanos = 0;
+        for (Runway runway : runways.getRunways()) {
+            landings += runway.getLandings();
+            if (runway.getUse() == Runway.Use.LANDING) {
+                landingNanos += runway.getBusyNanos();
+            }
+        }
+        // Mixed runways also take off, so the landing share is only known for landing-only runways
+        String perLanding = landingNanos > 0 ? String.format("%.2f s", landingNanos / 1e9 / landings) : "-";
+        String taxiwayWait = taxiways != null
+                ? String.format("%.2f s", taxiways.getEntryWait().getPercentile(99) / 1_000_000.0) : "-";
+        System.out.printf("%-8s %-22s %14.1f %20s %18s%n", layout, name, flights / hours, perLanding, taxiwayWait);
+        boolean gatesEmpty = simulation.getGateStatusCheck().contains("PASSED");
+        if (departed == flights && gatesEmpty) {
+            return true;
+        }
+        System.out.println("  FAILED: " + departed + " of " + flights + " flights departed, gates "
+                + (gatesEmpty ? "empty" : "still occupied"));
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.bench;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.RunwayPool;
+import airport.models.TurnaroundPlan;
+import airport.sim.AirportSimulation;
+
+// Gate-bound throughput with the original sequential turnaround against the parallel plan,
+// on the discrete-event simulation. Arrivals are saturated and there are enough runways and
+// trucks that the gates are the limit, so throughput follows gate occupancy.
+//
+// Usage: TurnaroundBenchmark [flights] [gates]
+public class TurnaroundBenchmark {
+
+    public static void main(String[] args) {
+        int flights = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int gates = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        System.out.println("Turnaround plans, " + flights + " flights, " + gates + " gates (virtual time)");
+        System.out.printf("%-12s %10s %14s %22s%n", "plan", "hours", "flights/hour", "gate time per flight");
+        run("sequential", TurnaroundPlan.sequential(), flights, gates);
+        run("parallel", TurnaroundPlan.standard(), flights, gates);
+    }
+
+    private static void run(String name, TurnaroundPlan plan, int flights, int gates) {
+        TurnaroundPlan.setCurrent(plan);
+        AirportSimulation simulation = new AirportSimulation(gates, RunwayPool.fromSpec("4"), 4, gates, 42, false);
+        simulation.scheduleArrivals(flights, 1);
+        simulation.run();
+
+        double hours = simulation.getVirtualTimeMillis() / 3_600_000.0;
+        // Gates are never idle while planes are waiting, so this is the average time a flight holds one
+        double gateSeconds = gates * simulation.getVirtualTimeMillis() / 1000.0 / flights;
+        System.out.printf("%-12s %10.2f %14.1f %20.1f s%n", name, hours, flights / hours, gateSeconds);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jmh;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Clearance;
+import airport.models.Gate;
+import airport.models.PlaneIds;
+import airport.models.Runway;
+import airport.models.RunwayPool;
+import airport.threads.AirTrafficControl;
+import airport.utils.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.ThreadParams;
+
+// Full ATC cycle per operation: request landing, wait for the clearance, use the runway,
+// request takeoff, use the runway again and leave. Each benchmark thread is one plane, so
+// the thread count is the number of planes competing for the ATC monitor, runway and gates.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AirTrafficControlBenchmark {
+    private static final long RUNWAY_TIMEOUT = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Airport {
+        @Param({"1", "3", "16"})
+        public int gates;
+
+        AirTrafficControl atc;
+
+        @Setup(Level.Trial)
+        public void start() {
+            Logger.setLevel(Logger.Level.WARN); // Grants and denials are logged at INFO
+            List<Gate> gateList = new ArrayList<>();
+            for (int i = 1; i <= gates; i++) {
+                gateList.add(new Gate(i));
+            }
+            // Ground slots follow the gate count, so the gates are the only limit
+            atc = new AirTrafficControl(new RunwayPool(List.of(new Runway())), gateList, gates);
+            atc.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws InterruptedException {
+            atc.shutdown();
+            atc.join();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Flight {
+        int planeId;
+
+        @Setup(Level.Trial)
+        public void name(ThreadParams threads) {
+            planeId = PlaneIds.register("Plane-T" + threads.getThreadIndex());
+        }
+    }
+
+    @Benchmark
+    public void landAndTakeOff(Airport airport, Flight flight) throws InterruptedException {
+        Clearance landing = airport.atc.requestLanding(flight.planeId, 1).await();
+        useRunway(landing.getRunway(), flight.planeId, true);
+        Clearance takeoff = airport.atc.requestTakeoff(flight.planeId).await();
+        useRunway(takeoff.getRunway(), flight.planeId, false);
+        airport.atc.planeLeftGround();
+    }
+
+    private static void useRunway(Runway runway, int planeId, boolean landing) throws InterruptedException {
+        boolean acquired = landing
+                ? runway.acquireForLanding(planeId, RUNWAY_TIMEOUT)
+                : runway.acquireForTakeoff(planeId, RUNWAY_TIMEOUT);
+        if (!acquired) {
+            throw new IllegalStateException(PlaneIds.name(planeId) + " could not get the runway it was cleared for");
+        }
+        runway.release();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jmh;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+// Runs the benchmarks once per thread count and writes one JSON result file per run,
+// e.g. results/threads-4.json, so results can be kept and compared between versions.
+// The plain JMH launcher (org.openjdk.jmh.Main) is in the same jar for anything else.
+//
+// System properties (all optional):
+//   jmh.threads  thread counts, default 1,2,4
+//   jmh.include  benchmark name regex, default everything
+//   jmh.gates    overrides the gate counts of the benchmarks that have a gates parameter
+//   jmh.results  result directory, default results
+//   jmh.quick    true for short iterations (smoke test rather than measurement)
+public class BenchmarkSuite {
+
+    public static void main(String[] args) throws RunnerException {
+        List<Integer> threadCounts = new ArrayList<>();
+        for (String count : System.getProperty("jmh.threads", "1,2,4").split(",")) {
+            threadCounts.add(Integer.parseInt(count.trim()));
+        }
+        String include = System.getProperty("jmh.include", ".*");
+        String gates = System.getProperty("jmh.gates", "");
+        File resultDir = new File(System.getProperty("jmh.results", "results"));
+        boolean quick = Boolean.getBoolean("jmh.quick");
+        resultDir.mkdirs();
+
+        for (int threads : threadCounts) {
+            File resultFile = new File(resultDir, "threads-" + threads + ".json");
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(BenchmarkSuite.class.getPackage().getName() + "\\..*(" + include + ")")
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(quick ? 1 : 3)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(quick ? 2 : 5)
+                    .measurementTime(TimeValue.seconds(1))
+                    .timeout(TimeValue.minutes(1))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultFile.getPath());
+            if (!gates.isEmpty()) {
+                options.param("gates", gates.split(","));
+            }
+            new Runner(options.build()).run();
+            System.out.println("Results written to " + resultFile.getPath());
+        }
+    }
+}
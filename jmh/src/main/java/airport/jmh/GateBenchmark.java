@@ -0,0 +1,94 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jmh;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.models.GateRegistry;
+import airport.models.PlaneIds;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.ThreadParams;
+
+// Gate.occupy/release and the registry lookups ATC does, with every thread on its own gate.
+// Threads are spread evenly over the gates, so with few gates they share bitmap words.
+// claimRelease has every thread race for the lowest free gate instead, as concurrent dispatchers would.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Gates {
+        @Param({"16", "64", "1024"})
+        public int gates;
+
+        List<Gate> gateList;
+        GateRegistry registry;
+
+        @Setup(Level.Trial)
+        public void create() {
+            gateList = new ArrayList<>();
+            for (int i = 1; i <= gates; i++) {
+                gateList.add(new Gate(i));
+            }
+            registry = new GateRegistry(gateList);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnGate {
+        Gate gate;
+        int planeId;
+
+        @Setup(Level.Trial)
+        public void pick(Gates gates, ThreadParams threads) {
+            if (threads.getThreadCount() > gates.gates) {
+                throw new IllegalStateException("Needs at least one gate per thread, got "
+                        + gates.gates + " gates for " + threads.getThreadCount() + " threads");
+            }
+            int spacing = gates.gates / threads.getThreadCount();
+            gate = gates.gateList.get(threads.getThreadIndex() * spacing);
+            planeId = PlaneIds.register("Plane-T" + threads.getThreadIndex());
+        }
+    }
+
+    @Benchmark
+    public void occupyRelease(OwnGate own) {
+        own.gate.occupy(own.planeId);
+        own.gate.release();
+    }
+
+    @Benchmark
+    public void claimRelease(Gates gates, OwnGate own) {
+        Gate gate = gates.registry.claimAvailableGate(own.planeId);
+        if (gate != null) {
+            gate.release();
+        }
+    }
+
+    @Benchmark
+    public Gate findAvailableGate(Gates gates) {
+        return gates.registry.findAvailableGate();
+    }
+
+    @Benchmark
+    public Gate getGateForPlane(Gates gates, OwnGate own) {
+        return gates.registry.getGateForPlane(own.planeId);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jmh;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.utils.Logger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// Logger.log from the calling thread's point of view. The writer thread formats and writes
+// to a channel that discards everything, so only the enqueue (and back-pressure) is measured.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+
+    @Setup(Level.Trial)
+    public void discardOutput() {
+        Logger.setLevel(Logger.Level.INFO);
+        Logger.setOutput(new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                int written = src.remaining();
+                src.position(src.limit());
+                return written;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void flush() {
+        Logger.flush();
+    }
+
+    @Benchmark
+    public void log() {
+        Logger.log("Permission granted for Plane-7 to land.");
+    }
+
+    // A message below the current level, which should cost next to nothing
+    @Benchmark
+    public void filteredDebug() {
+        Logger.debug("Runway queue re-evaluated");
+    }
+}
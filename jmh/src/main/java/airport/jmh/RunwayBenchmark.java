@@ -0,0 +1,64 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jmh;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.PlaneIds;
+import airport.models.Runway;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.ThreadParams;
+
+// Runway.acquireForLanding/release on one runway shared by all threads (fair ReentrantLock),
+// next to a bare unfair lock so the cost of fairness under contention is visible.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RunwayBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedRunway {
+        final Runway runway = new Runway();
+        final ReentrantLock unfairLock = new ReentrantLock(false);
+    }
+
+    @State(Scope.Thread)
+    public static class Pilot {
+        int planeId;
+
+        @Setup(Level.Trial)
+        public void name(ThreadParams threads) {
+            planeId = PlaneIds.register("Plane-T" + threads.getThreadIndex());
+        }
+    }
+
+    @Benchmark
+    public void acquireRelease(SharedRunway shared, Pilot pilot) throws InterruptedException {
+        if (shared.runway.acquireForLanding(pilot.planeId, 10_000)) {
+            shared.runway.release();
+        }
+    }
+
+    @Benchmark
+    public void unfairLockBaseline(SharedRunway shared) {
+        shared.unfairLock.lock();
+        try {
+            // Empty critical section, same as the runway benchmark
+        } finally {
+            shared.unfairLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jmh;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.utils.Statistics;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+// Cost of recording into the shared statistics from many threads at once
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatisticsBenchmark {
+
+    @Benchmark
+    public void recordLandingWait() {
+        Statistics.recordLandingWait(ThreadLocalRandom.current().nextLong(1, 30_000));
+    }
+
+    @Benchmark
+    public void recordGrantLatency() {
+        Statistics.recordGrantLatency(ThreadLocalRandom.current().nextLong(1_000, 50_000_000));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.models.RunwayPool;
+import airport.monitoring.AirportMonitor;
+import airport.monitoring.FlightWatchdog;
+import airport.recording.EventRecorder;
+import airport.threads.AirTrafficControl;
+import airport.threads.CrewPool;
+import airport.threads.EmbarkPassenger;
+import airport.threads.Plane;
+import airport.threads.RefuellingFleet;
+import airport.utils.ExecutionMode;
+import airport.utils.LatencyHistogram;
+import airport.utils.LockProfiler;
+import airport.utils.Logger;
+import airport.utils.Statistics;
+import airport.utils.TimeScale;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Headless load test: pushes many planes through the full land -> ground operations -> takeoff
+// cycle with every operation time scaled down, so what is measured is the coordination in
+// AirTrafficControl, the gates, runways and ground crews rather than the simulated sleeps.
+// The load is a closed loop: a fixed number of planes is in the system and each departure lets the next one in.
+//
+// LoadTest [planes] [platform|virtual] [time scale] [gates] [runways] [trucks] [cleaning crews] [supply crews] [planes in flight]
+public class LoadTest {
+    private static final int DEFAULT_PLANES = 10_000;
+    private static final double DEFAULT_TIME_SCALE = 0; // No sleeps at all; 0.001 turns milliseconds into microseconds
+    private static final int DEFAULT_GATES = 8;
+    private static final String DEFAULT_RUNWAYS = "2";
+    private static final int DEFAULT_TRUCKS = 4;
+
+    private static final AtomicLong departed = new AtomicLong();
+    private static volatile long tenPercentNanos;
+    private static volatile long ninetyPercentNanos;
+
+    public static void main(String[] args) throws InterruptedException {
+        int planes = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLANES;
+        ExecutionMode mode = args.length > 1 ? ExecutionMode.valueOf(args[1].toUpperCase()) : ExecutionMode.PLATFORM;
+        double timeScale = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TIME_SCALE;
+        int gateCount = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_GATES;
+        String runwaySpec = args.length > 4 ? args[4] : DEFAULT_RUNWAYS;
+        int trucks = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_TRUCKS;
+        int cleaningCrewCount = args.length > 6 ? Integer.parseInt(args[6]) : gateCount;
+        int supplyCrewCount = args.length > 7 ? Integer.parseInt(args[7]) : gateCount;
+        int inFlight = args.length > 8 ? Integer.parseInt(args[8]) : gateCount * 2; // Keeps a queue at the runways
+
+        ExecutionMode.setCurrent(mode);
+        TimeScale.setScale(timeScale);
+        Logger.setLevel(Logger.Level.WARN); // Otherwise the log writer is what gets measured
+
+        RunwayPool runways = RunwayPool.fromSpec(runwaySpec);
+        List<Gate> gates = new ArrayList<>();
+        for (int i = 1; i <= gateCount; i++) {
+            gates.add(new Gate(i));
+        }
+        RefuellingFleet refuellingFleet = new RefuellingFleet(trucks);
+        CrewPool cleaningCrews = CrewPool.cleaning(cleaningCrewCount, gateCount);
+        CrewPool supplyCrews = CrewPool.supply(supplyCrewCount, gateCount);
+        // Every gate can be used, the ground limit is not what is being tested
+        AirTrafficControl atc = new AirTrafficControl(runways, gates, gateCount);
+
+        System.out.printf("Load test: %,d planes, %s threads, time scale %s, %d gates, %d runways, "
+                + "%d trucks, %d cleaning + %d supply crews, %d planes in flight%n",
+                planes, mode, timeScale, gateCount, runways.size(), trucks, cleaningCrewCount, supplyCrewCount, inFlight);
+
+        AirportMonitor monitor = AirportMonitor.register(atc, refuellingFleet, cleaningCrews, supplyCrews);
+        EventRecorder recorder = Main.startRecording();
+        FlightWatchdog watchdog = FlightWatchdog.start(atc);
+        refuellingFleet.start();
+        cleaningCrews.start();
+        supplyCrews.start();
+        atc.start();
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        threadBean.resetPeakThreadCount();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long start = System.nanoTime();
+
+        Semaphore slots = new Semaphore(inFlight);
+        for (int i = 1; i <= planes; i++) {
+            slots.acquire();
+            String name = "Plane-" + i;
+            Plane plane = new Plane(name, 1, 0, atc, refuellingFleet, cleaningCrews, supplyCrews,
+                    new EmbarkPassenger(name));
+            // The plane runs on a thread of our own so its slot is handed back the moment it is done
+            mode.newThread(name, () -> {
+                try {
+                    plane.run();
+                } finally {
+                    planeDone(planes, start);
+                    slots.release();
+                }
+            }).start();
+        }
+        slots.acquire(inFlight); // Every plane has finished
+
+        long elapsedNanos = System.nanoTime() - start;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcMillis = gcMillis() - gcMillisBefore;
+        long heapPeak = heapHighWaterMark();
+        int peakThreads = threadBean.getPeakThreadCount();
+        boolean gatesEmpty = gates.stream().noneMatch(Gate::isOccupied);
+
+        atc.shutdown();
+        refuellingFleet.shutdown();
+        cleaningCrews.shutdown();
+        supplyCrews.shutdown();
+        monitor.unregister();
+        watchdog.close();
+        if (recorder != null) {
+            recorder.close();
+        }
+        Logger.flush();
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.println("\n===== Load Test Results =====");
+        System.out.printf("Planes departed: %,d of %,d in %.2f s%n", Statistics.getPlanesDeparted(), planes, seconds);
+        System.out.printf("Turnarounds per second: %,.0f overall", planes / seconds);
+        if (ninetyPercentNanos > tenPercentNanos) {
+            // Between the 10% and 90% departures, without the ramp-up and the drain at the end
+            double sustainedSeconds = (ninetyPercentNanos - tenPercentNanos) / 1e9;
+            System.out.printf(", %,.0f sustained", (planes * 0.8) / sustainedSeconds);
+        }
+        System.out.println();
+
+        LatencyHistogram grants = Statistics.getGrantLatency();
+        System.out.printf("ATC grant latency (us): avg %.1f | P50 %d | P99 %d | P99.9 %d | max %d%n",
+                grants.getMean(), grants.getPercentile(50), grants.getPercentile(99),
+                grants.getPercentile(99.9), grants.getMax());
+        System.out.println("Peak platform threads: " + peakThreads
+                + (mode == ExecutionMode.VIRTUAL ? " (planes, passengers and helpers ran on virtual threads)" : ""));
+        System.out.printf("Heap high-water mark: %.1f MB%n", heapPeak / (1024.0 * 1024.0));
+        System.out.printf("GC: %d collections, %d ms (%.1f%% of run time)%n",
+                gcCount, gcMillis, elapsedNanos > 0 ? 100.0 * gcMillis * 1_000_000 / elapsedNanos : 0);
+        System.out.println("Gates empty afterwards: " + (gatesEmpty ? "yes" : "NO"));
+        System.out.println("==============================");
+        System.out.println(watchdog.getSummary());
+        if (LockProfiler.ENABLED) {
+            System.out.println(LockProfiler.getReport());
+        }
+    }
+
+    private static void planeDone(int planes, long start) {
+        long count = departed.incrementAndGet();
+        if (count == Math.max(1, planes / 10)) {
+            tenPercentNanos = System.nanoTime() - start;
+        }
+        if (count == Math.max(1, planes * 9L / 10)) {
+            ninetyPercentNanos = System.nanoTime() - start;
+        }
+    }
+
+    // Sum of each heap pool's peak since the reset; the pools may peak at different
+    // moments, so this is an upper bound on the heap actually in use at any one time
+    private static long heapHighWaterMark() {
+        long total = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                total += pool.getPeakUsage().getUsed();
+            }
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
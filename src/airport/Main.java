@@ -9,69 +9,171 @@ package airport;
  * @author junyo
  */
 
-import airport.threads.CleaningCrew;
+import airport.threads.CrewPool;
+import airport.threads.ArrivalFeeder;
 import airport.threads.Plane;
-import airport.threads.SupplyCrew;
-import airport.threads.RefuellingTruck;
+import airport.threads.RefuellingFleet;
 import airport.threads.AirTrafficControl;
 import airport.models.Gate;
-import airport.models.Runway;
+import airport.models.RunwayPool;
+import airport.monitoring.AirportMonitor;
+import airport.monitoring.FlightWatchdog;
+import airport.recording.EventRecorder;
 import airport.threads.*;
+import airport.scenario.Scenario;
+import airport.sim.AirportSimulation;
+import airport.utils.ExecutionMode;
+import airport.utils.LockProfiler;
+import airport.utils.Logger;
 import airport.utils.Statistics;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Main {
     private static final int NUM_GATES = 3;
     private static final int NUM_PLANES = 6;
-    private static final int NUM_PASSENGER_GROUPS = 6;
+    private static final String DEFAULT_RUNWAYS = "1"; // One mixed runway
+    private static final int DEFAULT_REFUELLING_TRUCKS = 1;
+    private static final int DEFAULT_CREWS = NUM_GATES; // Per kind, as many as there used to be gate crews
+    private static final long DEFAULT_CONTINUOUS_INTERVAL = 6000; // Below what one runway can turn around, so queues stay short
+    private static final long STATUS_INTERVAL = 60_000; // Status line period on open-ended runs
     
     public static void main(String[] args) {
+        // "des [flights] [hours] [gates] [runways] [trucks] [cleaning crews] [supply crews]"
+        // runs the discrete-event simulation on a virtual clock instead
+        if (args.length > 0 && args[0].equalsIgnoreCase("des")) {
+            runDiscreteEventSimulation(args);
+            return;
+        }
+        // "scenario <file> [platform|virtual|des]" runs a traffic day from a scenario file
+        if (args.length > 0 && args[0].equalsIgnoreCase("scenario")) {
+            runScenario(args);
+            return;
+        }
+        // "continuous [platform|virtual] [hours] [arrival interval ms]" keeps flights arriving, 0 hours = until stopped
+        if (args.length > 0 && args[0].equalsIgnoreCase("continuous")) {
+            runContinuous(args);
+            return;
+        }
+
+        // Optional first argument selects how planes, passengers and crews get threads: platform | virtual
+        ExecutionMode mode = args.length > 0 ? ExecutionMode.valueOf(args[0].toUpperCase()) : ExecutionMode.PLATFORM;
+        // Optional second argument: runway count ("2") or one letter per runway ("LT", L/T/M = landing/takeoff/mixed)
+        String runwaySpec = args.length > 1 ? args[1] : DEFAULT_RUNWAYS;
+        // Optional third argument: number of refuelling trucks
+        int refuellingTrucks = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_REFUELLING_TRUCKS;
+        // Optional fourth and fifth arguments: cleaning and supply crew headcount, shared by all gates
+        int cleaningCrewCount = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CREWS;
+        int supplyCrewCount = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_CREWS;
+
+        Scenario scenario = Scenario.standard(NUM_PLANES, NUM_GATES, Plane.ARRIVAL_INTERVAL);
+        runThreadedSimulation(mode, scenario, runwaySpec, refuellingTrucks, cleaningCrewCount, supplyCrewCount, 0);
+    }
+
+    private static void runContinuous(String[] args) {
+        ExecutionMode mode = args.length > 1 ? ExecutionMode.valueOf(args[1].toUpperCase()) : ExecutionMode.PLATFORM;
+        double hours = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        long interval = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_CONTINUOUS_INTERVAL;
+        Scenario scenario = Scenario.continuous(NUM_GATES, interval, (long) (hours * 3_600_000));
+        runThreadedSimulation(mode, scenario, DEFAULT_RUNWAYS, DEFAULT_REFUELLING_TRUCKS,
+                DEFAULT_CREWS, DEFAULT_CREWS, STATUS_INTERVAL);
+    }
+
+    private static void runScenario(String[] args) {
+        String mode = args.length > 2 ? args[2] : ExecutionMode.PLATFORM.name();
+        try (Scenario scenario = Scenario.open(Paths.get(args[1]))) {
+            if (mode.equalsIgnoreCase("des")) {
+                runScenarioSimulation(scenario);
+            } else {
+                runThreadedSimulation(ExecutionMode.valueOf(mode.toUpperCase()), scenario, scenario.getRunways(),
+                        scenario.getRefuellingTrucks(), scenario.getCleaningCrews(), scenario.getSupplyCrews(), 0);
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read scenario: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            System.err.println("Cannot read scenario: " + e.getCause().getMessage());
+        }
+    }
+
+    private static void runThreadedSimulation(ExecutionMode mode, Scenario scenario, String runwaySpec,
+                                              int refuellingTrucks, int cleaningCrewCount, int supplyCrewCount,
+                                              long statusIntervalMillis) {
+        ExecutionMode.setCurrent(mode);
+        System.out.println("Execution mode: " + mode);
+
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         
         try {
-            Runway runway = new Runway();
-            List<Gate> gates = createGates();
+            RunwayPool runways = RunwayPool.fromSpec(runwaySpec);
+            List<Gate> gates = createGates(scenario.getGates());
 
-            RefuellingTruck refuellingTruck = new RefuellingTruck();
-            CleaningCrew[] cleaningCrews = new CleaningCrew[NUM_GATES];
-            SupplyCrew[] supplyCrews = new SupplyCrew[NUM_GATES];
-            
-            for (int i = 0; i < NUM_GATES; i++) {
-                cleaningCrews[i] = new CleaningCrew(i + 1);
-                supplyCrews[i] = new SupplyCrew(i + 1);
-            }
+            RefuellingFleet refuellingFleet = new RefuellingFleet(refuellingTrucks);
+            CrewPool cleaningCrews = CrewPool.cleaning(cleaningCrewCount, gates.size());
+            CrewPool supplyCrews = CrewPool.supply(supplyCrewCount, gates.size());
 
-            AirTrafficControl atc = new AirTrafficControl(runway, gates);
+            AirTrafficControl atc = new AirTrafficControl(runways, gates, scenario.getMaxPlanesOnGround());
 
-            // Start all service threads
-            startServiceThreads(refuellingTruck, cleaningCrews, supplyCrews, atc);
+            // Live metrics over JMX for the whole run
+            AirportMonitor monitor = AirportMonitor.register(atc, refuellingFleet, cleaningCrews, supplyCrews);
+            EventRecorder recorder = startRecording();
+            FlightWatchdog watchdog = FlightWatchdog.start(atc);
 
-            // Create passenger groups
-            EmbarkPassenger[] passengerGroups = createPassengerGroups();
+            // Start all service threads
+            startServiceThreads(refuellingFleet, cleaningCrews, supplyCrews, atc);
 
-            // Create and start planes (now with passenger groups)
-            List<Plane> planes = createPlanes(atc, runway, refuellingTruck, cleaningCrews, supplyCrews, passengerGroups);
-            startPlanes(planes);
+            // Planes (and their passenger groups) are created as their arrival time approaches
+            ArrivalFeeder arrivals = new ArrivalFeeder(scenario, (arrival, delay) ->
+                    new Plane(arrival.getFlightName(), arrival.getEmergencyLevel(), delay, atc,
+                            refuellingFleet, cleaningCrews, supplyCrews, new EmbarkPassenger(arrival.getFlightName())));
+            arrivals.start();
 
-            // Wait for all planes to complete
-            waitForPlanesToComplete(planes);
+            // Wait for all planes to complete, with a status line now and then on open-ended runs
+            while (statusIntervalMillis > 0 && arrivals.isAlive()) {
+                arrivals.join(statusIntervalMillis);
+                if (arrivals.isAlive()) {
+                    printStatus(startNanos, arrivals, atc);
+                }
+            }
+            arrivals.join();
             
             // Calculate simulation duration
             long endTime = System.currentTimeMillis();
             double durationSeconds = (endTime - startTime) / 1000.0;
+            long elapsedNanos = System.nanoTime() - startNanos;
+            String runwayUtilization = runways.getUtilizationSummary(elapsedNanos)
+                    + atc.getTaxiways().getUtilizationSummary(elapsedNanos);
+            String fleetUtilization = refuellingFleet.getUtilizationSummary(elapsedNanos);
+            String crewUtilization = cleaningCrews.getUtilizationSummary(elapsedNanos) + "\n"
+                    + supplyCrews.getUtilizationSummary(elapsedNanos);
 
             // Perform gate sanity check before shutdown
-            String gateStatusCheck = atc.getGateStatusCheck();
+            String gateStatusCheck = atc.getLookAheadSummary() + "\n" + atc.getGateStatusCheck();
 
             // Shutdown all services
-            shutdownServices(atc, refuellingTruck, cleaningCrews, supplyCrews);
+            shutdownServices(atc, refuellingFleet, cleaningCrews, supplyCrews);
+            monitor.unregister();
+            watchdog.close();
+            if (recorder != null) {
+                recorder.close();
+            }
+            Logger.flush(); // Log lines are written asynchronously, get them out before the summary
 
             // Print final statistics
             System.out.println("\nSimulation completed successfully!");
             System.out.printf("Total simulation time: %.2f seconds%n", durationSeconds);
             System.out.println(Statistics.getSummary());
+            System.out.println(runwayUtilization);
+            System.out.println(fleetUtilization);
+            System.out.println(crewUtilization);
             System.out.println(gateStatusCheck);
+            System.out.println(watchdog.getSummary());
+            if (LockProfiler.ENABLED) {
+                System.out.println(LockProfiler.getReport());
+            }
 
         } catch (Exception e) {
             System.err.println("Simulation failed: " + e.getMessage());
@@ -79,66 +181,116 @@ public class Main {
         }
     }
 
-    private static List<Gate> createGates() {
-        List<Gate> gates = new ArrayList<>();
-        for (int i = 1; i <= NUM_GATES; i++) {
-            gates.add(new Gate(i));
-        }
-        return gates;
+    private static void runDiscreteEventSimulation(String[] args) {
+        int flights = args.length > 1 ? Integer.parseInt(args[1]) : NUM_PLANES;
+        double hours = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        int gates = args.length > 3 ? Integer.parseInt(args[3]) : NUM_GATES;
+        RunwayPool runways = RunwayPool.fromSpec(args.length > 4 ? args[4] : DEFAULT_RUNWAYS);
+        int trucks = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_REFUELLING_TRUCKS;
+        int cleaningCrewCount = args.length > 6 ? Integer.parseInt(args[6]) : gates;
+        int supplyCrewCount = args.length > 7 ? Integer.parseInt(args[7]) : gates;
+        // Without a time window, planes arrive one second apart like the threaded simulation
+        long arrivalInterval = hours > 0 ? Math.max(1, (long) (hours * 3_600_000 / flights)) : Plane.ARRIVAL_INTERVAL;
+
+        System.out.println("Execution mode: DES (" + flights + " flights, " + gates + " gates, "
+                + runways.size() + " runways, " + trucks + " refuelling trucks)");
+        long startTime = System.currentTimeMillis();
+
+        AirportSimulation simulation = new AirportSimulation(gates, runways, trucks, System.nanoTime(), flights <= 100);
+        simulation.setGroundCrews(cleaningCrewCount, supplyCrewCount);
+        simulation.scheduleArrivals(flights, arrivalInterval);
+        simulation.run();
+
+        double durationSeconds = (System.currentTimeMillis() - startTime) / 1000.0;
+        System.out.println("\nSimulation completed successfully!");
+        System.out.printf("Total simulation time: %.2f seconds (virtual)%n", simulation.getVirtualTimeMillis() / 1000.0);
+        System.out.printf("Wall-clock time: %.2f seconds, %d events%n", durationSeconds, simulation.getProcessedEvents());
+        System.out.println(Statistics.getSummary());
+        System.out.println(runways.getUtilizationSummary(simulation.getVirtualTimeMillis() * 1_000_000)
+                + simulation.getTaxiways().getUtilizationSummary(simulation.getVirtualTimeMillis() * 1_000_000));
+        System.out.println(simulation.getGroundServiceSummary());
+        System.out.println(simulation.getLookAheadSummary());
+        System.out.println(simulation.getGateStatusCheck());
     }
 
-    private static void startServiceThreads(RefuellingTruck refuellingTruck, 
-                                          CleaningCrew[] cleaningCrews,
-                                          SupplyCrew[] supplyCrews,
-                                          AirTrafficControl atc) {
-        refuellingTruck.start();
-        for (int i = 0; i < NUM_GATES; i++) {
-            cleaningCrews[i].start();
-            supplyCrews[i].start();
-        }
-        atc.start();
+    private static void runScenarioSimulation(Scenario scenario) throws IOException {
+        RunwayPool runways = RunwayPool.fromSpec(scenario.getRunways());
+        System.out.println("Execution mode: DES (" + scenario.getGates() + " gates, "
+                + runways.size() + " runways, " + scenario.getRefuellingTrucks() + " refuelling trucks)");
+        long startTime = System.currentTimeMillis();
+
+        AirportSimulation simulation = new AirportSimulation(scenario.getGates(), runways,
+                scenario.getRefuellingTrucks(), scenario.getMaxPlanesOnGround(), System.nanoTime(), false);
+        simulation.setGroundCrews(scenario.getCleaningCrews(), scenario.getSupplyCrews());
+        simulation.scheduleArrivals(scenario);
+        simulation.run();
+
+        double durationSeconds = (System.currentTimeMillis() - startTime) / 1000.0;
+        System.out.println("\nSimulation completed successfully!");
+        System.out.printf("Total simulation time: %.2f seconds (virtual)%n", simulation.getVirtualTimeMillis() / 1000.0);
+        System.out.printf("Wall-clock time: %.2f seconds, %d flights, %d events%n", durationSeconds,
+                scenario.getArrivalsRead(), simulation.getProcessedEvents());
+        System.out.println(Statistics.getSummary());
+        System.out.println(runways.getUtilizationSummary(simulation.getVirtualTimeMillis() * 1_000_000)
+                + simulation.getTaxiways().getUtilizationSummary(simulation.getVirtualTimeMillis() * 1_000_000));
+        System.out.println(simulation.getGroundServiceSummary());
+        System.out.println(simulation.getLookAheadSummary());
+        System.out.println(simulation.getGateStatusCheck());
     }
 
-    private static List<Plane> createPlanes(AirTrafficControl atc, 
-                                        Runway runway,
-                                        RefuellingTruck refuellingTruck,
-                                        CleaningCrew[] cleaningCrews,
-                                        SupplyCrew[] supplyCrews,
-                                        EmbarkPassenger[] passengerGroups) {
-      List<Plane> planes = new ArrayList<>();
-      for (int i = 1; i <= NUM_PLANES; i++) {
-          planes.add(new Plane(i, atc, runway, refuellingTruck, cleaningCrews, supplyCrews, passengerGroups[i-1]));
-      }
-      return planes;
+    // One line of progress for continuous mode
+    private static void printStatus(long startNanos, ArrivalFeeder arrivals, AirTrafficControl atc) {
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("[status] %.1f min: %,d planes started, %,d departed, %d on ground, %d waiting to land, "
+                + "heap %.1f MB%n", (System.nanoTime() - startNanos) / 60e9, arrivals.getPlanesStarted(),
+                Statistics.getPlanesDeparted(), atc.getPlanesOnGround(), atc.getLandingQueueDepth(),
+                (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0));
     }
 
-    private static void startPlanes(List<Plane> planes) {
-        for (Plane plane : planes) {
-            plane.start();
+    // Binary event recording of the run, into ./recordings unless -Dairport.recording=<dir> or =off.
+    // Read it with airport.recording.RecordingDump.
+    static EventRecorder startRecording() {
+        String directory = System.getProperty("airport.recording", "recordings");
+        if (directory.equalsIgnoreCase("off")) {
+            return null;
+        }
+        try {
+            EventRecorder recorder = EventRecorder.start(Paths.get(directory));
+            System.out.println("Recording events to " + directory);
+            return recorder;
+        } catch (IOException e) {
+            System.err.println("Event recording disabled: " + e.getMessage());
+            return null;
         }
     }
 
-    private static void waitForPlanesToComplete(List<Plane> planes) {
-        for (Plane plane : planes) {
-            try {
-                plane.join();
-            } catch (InterruptedException e) {
-                System.err.println("Error waiting for plane " + plane.getName() + ": " + e.getMessage());
-            }
+    private static List<Gate> createGates(int count) {
+        List<Gate> gates = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            gates.add(new Gate(i));
         }
+        return gates;
+    }
+
+    private static void startServiceThreads(RefuellingFleet refuellingFleet, 
+                                          CrewPool cleaningCrews,
+                                          CrewPool supplyCrews,
+                                          AirTrafficControl atc) {
+        refuellingFleet.start();
+        cleaningCrews.start();
+        supplyCrews.start();
+        atc.start();
     }
 
     private static void shutdownServices(AirTrafficControl atc,
-                                       RefuellingTruck refuellingTruck,
-                                       CleaningCrew[] cleaningCrews,
-                                       SupplyCrew[] supplyCrews) {
+                                       RefuellingFleet refuellingFleet,
+                                       CrewPool cleaningCrews,
+                                       CrewPool supplyCrews) {
         // Shutdown all services
         atc.shutdown();
-        refuellingTruck.shutdown();
-        for (int i = 0; i < NUM_GATES; i++) {
-            cleaningCrews[i].shutdown();
-            supplyCrews[i].shutdown();
-        }
+        refuellingFleet.shutdown();
+        cleaningCrews.shutdown();
+        supplyCrews.shutdown();
 
         // Give services time to shutdown gracefully
         try {
@@ -147,17 +299,5 @@ public class Main {
             Thread.currentThread().interrupt();
         }
     }
-    
-    // Add new method after createGates() method (around line 85)
-    private static EmbarkPassenger[] createPassengerGroups() {
-        EmbarkPassenger[] passengerGroups = new EmbarkPassenger[NUM_PASSENGER_GROUPS];
-        for (int i = 0; i < NUM_PASSENGER_GROUPS; i++) {
-            String planeName = "Plane-" + (i + 1);
-            passengerGroups[i] = new EmbarkPassenger(planeName);
-        }
-        return passengerGroups;
-    }
 
 }
-
-
@@ -0,0 +1,236 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.models.RunwayPool;
+import airport.monitoring.AirportMonitor;
+import airport.monitoring.FlightWatchdog;
+import airport.recording.EventRecorder;
+import airport.threads.AirTrafficControl;
+import airport.threads.CrewPool;
+import airport.threads.EmbarkPassenger;
+import airport.threads.Plane;
+import airport.threads.RefuellingFleet;
+import airport.utils.ExecutionMode;
+import airport.utils.Logger;
+import airport.utils.Statistics;
+import airport.utils.TimeScale;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// Soak test for continuous operation: planes keep cycling through the airport (closed loop, no sleeps)
+// until the time is up, and the heap left after a full GC is sampled along the way. Once warmed up it
+// must stay flat: every piece of per-plane state has to be gone once the plane has departed.
+// Events are recorded as in continuous mode (-Dairport.recording, see Main), and the recording
+// directory must stay within its segment limit.
+// Exits with status 1 if the heap trend, any leftover per-plane state or the recording says otherwise.
+//
+// SoakTest [minutes] [platform|virtual] [planes in flight] [sample seconds]     (1440 minutes = 24 hours)
+public class SoakTest {
+    private static final double DEFAULT_MINUTES = 10;
+    private static final int DEFAULT_GATES = 8;
+    private static final String DEFAULT_RUNWAYS = "2";
+    private static final int DEFAULT_TRUCKS = 4;
+    private static final double WARM_UP = 0.2;                     // Share of the samples ignored while the JIT and pools settle
+    private static final long MAX_GROWTH_BYTES = 4 * 1024 * 1024;  // Allowed trend over the measured part of the run
+
+    public static void main(String[] args) throws InterruptedException {
+        double minutes = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_MINUTES;
+        ExecutionMode mode = args.length > 1 ? ExecutionMode.valueOf(args[1].toUpperCase()) : ExecutionMode.VIRTUAL;
+        int inFlight = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_GATES * 2;
+        long sampleMillis = args.length > 3 ? Long.parseLong(args[3]) * 1000
+                : Math.max(1000, (long) (minutes * 60_000 / 60)); // About 60 samples
+
+        ExecutionMode.setCurrent(mode);
+        TimeScale.setScale(0);
+        Logger.setLevel(Logger.Level.WARN);
+
+        List<Gate> gates = new ArrayList<>();
+        for (int i = 1; i <= DEFAULT_GATES; i++) {
+            gates.add(new Gate(i));
+        }
+        RunwayPool runways = RunwayPool.fromSpec(DEFAULT_RUNWAYS);
+        RefuellingFleet refuellingFleet = new RefuellingFleet(DEFAULT_TRUCKS);
+        CrewPool cleaningCrews = CrewPool.cleaning(DEFAULT_GATES, DEFAULT_GATES);
+        CrewPool supplyCrews = CrewPool.supply(DEFAULT_GATES, DEFAULT_GATES);
+        AirTrafficControl atc = new AirTrafficControl(runways, gates, DEFAULT_GATES);
+
+        System.out.printf("Soak test: %.1f minutes, %s threads, %d planes in flight, heap sampled every %d s%n",
+                minutes, mode, inFlight, sampleMillis / 1000);
+
+        EventRecorder recorder = Main.startRecording();
+        AirportMonitor monitor = AirportMonitor.register(atc, refuellingFleet, cleaningCrews, supplyCrews);
+        FlightWatchdog watchdog = FlightWatchdog.start(atc);
+        refuellingFleet.start();
+        cleaningCrews.start();
+        supplyCrews.start();
+        atc.start();
+
+        long start = System.nanoTime();
+        long end = start + (long) (minutes * 60e9);
+        List<long[]> samples = new ArrayList<>(); // { elapsed nanos, heap used after GC }
+        Thread sampler = new Thread(() -> sample(start, end, sampleMillis, samples), "HeapSampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        Semaphore slots = new Semaphore(inFlight);
+        long planes = 0;
+        while (System.nanoTime() < end) {
+            slots.acquire();
+            planes++;
+            String name = "Plane-" + planes;
+            int emergencyLevel = planes % 50 == 0 ? 3 : 1; // Keep the emergency queue in use as well
+            Plane plane = new Plane(name, emergencyLevel, 0, atc, refuellingFleet, cleaningCrews, supplyCrews,
+                    new EmbarkPassenger(name));
+            mode.newThread(name, () -> {
+                try {
+                    plane.run();
+                } finally {
+                    slots.release();
+                }
+            }).start();
+        }
+        slots.acquire(inFlight); // Every plane has finished
+        sampler.join();
+
+        // Everything that is kept per plane must be empty again
+        List<String> leftovers = new ArrayList<>();
+        for (Gate gate : gates) {
+            if (gate.isOccupied()) {
+                leftovers.add("Gate-" + gate.getGateNumber() + " occupied by " + gate.getOccupiedBy());
+            }
+        }
+        if (atc.getPlanesOnGround() != 0) {
+            leftovers.add(atc.getPlanesOnGround() + " planes still counted on the ground");
+        }
+        if (atc.getLandingQueueDepth() + atc.getTakeoffQueueDepth() != 0) {
+            leftovers.add((atc.getLandingQueueDepth() + atc.getTakeoffQueueDepth()) + " requests still queued");
+        }
+        if (watchdog.getLeakedGates() + watchdog.getLeakedGroundSlots() != 0) {
+            leftovers.add(watchdog.getLeakedGates() + " leaked gates, " + watchdog.getLeakedGroundSlots() + " leaked ground slots");
+        }
+
+        atc.shutdown();
+        refuellingFleet.shutdown();
+        cleaningCrews.shutdown();
+        supplyCrews.shutdown();
+        watchdog.close();
+        monitor.unregister();
+        if (recorder != null) {
+            recorder.close();
+            checkRecording(recorder.getDirectory(), leftovers);
+        }
+        Logger.flush();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("\n===== Soak Test Results =====");
+        System.out.printf("Planes departed: %,d of %,d in %.1f s (%,.0f per second)%n",
+                Statistics.getPlanesDeparted(), planes, seconds, planes / seconds);
+
+        boolean passed = leftovers.isEmpty();
+        int first = (int) Math.ceil(samples.size() * WARM_UP);
+        if (samples.size() - first >= 3) {
+            List<long[]> measured = samples.subList(first, samples.size());
+            double slope = slope(measured); // Bytes per nanosecond
+            long span = measured.get(measured.size() - 1)[0] - measured.get(0)[0];
+            double growth = slope * span;
+            System.out.printf("Heap after GC: %.1f MB at warm-up end, %.1f MB at the end%n",
+                    measured.get(0)[1] / (1024.0 * 1024.0), measured.get(measured.size() - 1)[1] / (1024.0 * 1024.0));
+            System.out.printf("Heap trend: %+.2f MB over %.1f min (%+.2f MB/hour), limit %.1f MB%n",
+                    growth / (1024.0 * 1024.0), span / 60e9, slope * 3600e9 / (1024.0 * 1024.0),
+                    MAX_GROWTH_BYTES / (1024.0 * 1024.0));
+            passed &= growth <= MAX_GROWTH_BYTES;
+        } else {
+            System.out.println("Heap trend: not enough samples, run longer or sample more often");
+            passed = false;
+        }
+        for (String leftover : leftovers) {
+            System.out.println("Leftover per-plane state: " + leftover);
+        }
+        System.out.println("Result: " + (passed ? "PASSED" : "FAILED"));
+        System.out.println("==============================");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // At most DEFAULT_MAX_SEGMENTS segments with their names files, and fewer name bytes than records
+    private static void checkRecording(Path directory, List<String> leftovers) {
+        int segments = 0;
+        int nameFiles = 0;
+        long segmentBytes = 0;
+        long nameBytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*")) {
+            for (Path path : files) {
+                if (path.toString().endsWith(EventRecorder.PLANE_NAMES_SUFFIX)) {
+                    nameFiles++;
+                    nameBytes += Files.size(path);
+                } else {
+                    segments++;
+                    segmentBytes += Files.size(path);
+                }
+            }
+        } catch (IOException e) {
+            leftovers.add("Cannot read the recording: " + e.getMessage());
+            return;
+        }
+        System.out.printf("Recording: %d segments (%.1f MB), %d names files (%.1f MB)%n", segments,
+                segmentBytes / (1024.0 * 1024.0), nameFiles, nameBytes / (1024.0 * 1024.0));
+        if (segments > EventRecorder.DEFAULT_MAX_SEGMENTS || nameFiles != segments || nameBytes > segmentBytes) {
+            leftovers.add("Recording not bounded: " + segments + " segments, " + nameFiles + " names files, "
+                    + nameBytes + " name bytes");
+        }
+    }
+
+    private static void sample(long start, long end, long sampleMillis, List<long[]> samples) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        try {
+            long next = start;
+            while ((next += sampleMillis * 1_000_000) <= end) {
+                Thread.sleep(Math.max(0, (next - System.nanoTime()) / 1_000_000));
+                System.gc();
+                long used = memory.getHeapMemoryUsage().getUsed();
+                long elapsed = System.nanoTime() - start;
+                samples.add(new long[] { elapsed, used }); // Read by main only after join()
+                System.out.printf("[%6.1f min] heap after GC %.1f MB, %,d departed%n",
+                        elapsed / 60e9, used / (1024.0 * 1024.0), Statistics.getPlanesDeparted());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Least-squares slope of heap used over time
+    private static double slope(List<long[]> samples) {
+        double meanX = 0;
+        double meanY = 0;
+        for (long[] sample : samples) {
+            meanX += sample[0];
+            meanY += sample[1];
+        }
+        meanX /= samples.size();
+        meanY /= samples.size();
+        double covariance = 0;
+        double variance = 0;
+        for (long[] sample : samples) {
+            covariance += (sample[0] - meanX) * (sample[1] - meanY);
+            variance += (sample[0] - meanX) * (sample[0] - meanX);
+        }
+        return variance > 0 ? covariance / variance : 0;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jfr;
+
+/**
+ *
+ * @author junyo
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("airport.AtcDenial")
+@Label("ATC Denial")
+@Category({"Airport", "ATC"})
+@Description("ATC refusing a request, once per plane and reason like the log")
+@StackTrace(false)
+public class AtcDenialEvent extends Event {
+    @Label("Plane")
+    public String plane;
+
+    @Label("Landing")
+    public boolean landing;
+
+    @Label("Reason")
+    public String reason;
+}
@@ -0,0 +1,41 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jfr;
+
+/**
+ *
+ * @author junyo
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("airport.AtcGrant")
+@Label("ATC Grant")
+@Category({"Airport", "ATC"})
+@Description("ATC clearing a queued request for a runway")
+@StackTrace(false)
+public class AtcGrantEvent extends Event {
+    @Label("Plane")
+    public String plane;
+
+    @Label("Landing")
+    public boolean landing;
+
+    @Label("Runway")
+    public int runway;
+
+    @Label("Gate")
+    public int gate;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueWait;
+}
@@ -0,0 +1,30 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jfr;
+
+/**
+ *
+ * @author junyo
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("airport.GateOccupancy")
+@Label("Gate Occupancy")
+@Category({"Airport", "Gate"})
+@Description("A plane occupying a gate, from occupy to release")
+@StackTrace(false)
+public class GateOccupancyEvent extends Event {
+    @Label("Plane")
+    public String plane;
+
+    @Label("Gate")
+    public int gate;
+}
@@ -0,0 +1,38 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jfr;
+
+/**
+ *
+ * @author junyo
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("airport.GroundService")
+@Label("Ground Service")
+@Category({"Airport", "Service"})
+@Description("One ground service job (refuelling, cleaning, supply, boarding), from start to finish")
+@StackTrace(false)
+public class GroundServiceEvent extends Event {
+    @Label("Service")
+    public String service;
+
+    @Label("Plane")
+    public String plane;
+
+    @Label("Done By")
+    public String doneBy;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueWait;
+}
@@ -0,0 +1,36 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jfr;
+
+/**
+ *
+ * @author junyo
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("airport.RunwayAcquire")
+@Label("Runway Acquire")
+@Category({"Airport", "Runway"})
+@Description("Time a cleared plane waited for the runway lock")
+@StackTrace(false)
+public class RunwayAcquireEvent extends Event {
+    @Label("Plane")
+    public String plane;
+
+    @Label("Runway")
+    public int runway;
+
+    @Label("Landing")
+    public boolean landing;
+
+    @Label("Acquired")
+    public boolean acquired;
+}
@@ -0,0 +1,33 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jfr;
+
+/**
+ *
+ * @author junyo
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("airport.RunwayHold")
+@Label("Runway Hold")
+@Category({"Airport", "Runway"})
+@Description("A plane holding the runway, from acquire to release")
+@StackTrace(false)
+public class RunwayHoldEvent extends Event {
+    @Label("Plane")
+    public String plane;
+
+    @Label("Runway")
+    public int runway;
+
+    @Label("Landing")
+    public boolean landing;
+}
@@ -0,0 +1,30 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.jfr;
+
+/**
+ *
+ * @author junyo
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("airport.TurnaroundTask")
+@Label("Turnaround Task")
+@Category({"Airport", "Service"})
+@Description("A turnaround task as the plane sees it, including any wait for a crew or truck")
+@StackTrace(false)
+public class TurnaroundTaskEvent extends Event {
+    @Label("Plane")
+    public String plane;
+
+    @Label("Task")
+    public String task;
+}
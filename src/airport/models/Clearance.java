@@ -0,0 +1,29 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+// What ATC hands a plane with its grant: the runway to use and the gate it is landing at or leaving
+public class Clearance {
+    private final Runway runway;
+    private final Gate gate;
+
+    public Clearance(Runway runway, Gate gate) {
+        this.runway = runway;
+        this.gate = gate;
+    }
+
+    public Runway getRunway() {
+        return runway;
+    }
+
+    public Gate getGate() {
+        return gate;
+    }
+}
@@ -9,16 +9,56 @@ package airport.models;
  * @author junyo
  */
 
+import airport.jfr.GateOccupancyEvent;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// Occupancy is a single atomic word: PlaneIds.NONE while free, otherwise the id of the plane at the gate.
+// tryClaim()/release() flip it with a CAS, so gates can be handed out without any shared lock.
 public class Gate {
+    private static final VarHandle OCCUPIED_BY;
+
+    static {
+        try {
+            OCCUPIED_BY = MethodHandles.lookup().findVarHandle(Gate.class, "occupiedBy", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final int gateNumber;
-    private boolean isOccupied;
-    private String occupiedBy;
-    private final Object lock = new Object(); // For wait/notify mechanism
+    private volatile int occupiedBy; // Plane id, PlaneIds.NONE while free; only changed by CAS
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>(); // Parked in waitForAvailability() / awaitOccupant()
+    private volatile Runnable releaseListener; // Notified whenever the gate becomes free
+    private volatile GateRegistry registry; // Index kept in step with claim/release, if any
+    private volatile int registryIndex;
+    private GateOccupancyEvent occupancyEvent; // Only set while JFR records it, see below for who writes it
+
+    // ===== Occupancy time, readable without any lock =====
+    // Written by whichever thread claims or releases the gate for a plane (the ATC scheduler). An
+    // occupation is released only after its claim has returned, so the writes never overlap.
+    private volatile long occupiedSince; // nanoTime of the current occupation, 0 while free
+    private volatile long occupiedNanos; // Completed occupations
 
     public Gate(int gateNumber) {
         this.gateNumber = gateNumber;
-        this.isOccupied = false;
-        this.occupiedBy = null;
+        this.occupiedBy = PlaneIds.NONE;
+    }
+
+    public void setReleaseListener(Runnable listener) {
+        this.releaseListener = listener;
+    }
+
+    void register(GateRegistry registry, int index) {
+        this.registryIndex = index;
+        this.registry = registry;
+    }
+
+    int getRegistryIndex() {
+        return registryIndex;
     }
 
     public int getGateNumber() {
@@ -26,44 +66,144 @@ public class Gate {
     }
 
     public boolean isOccupied() {
-        synchronized (lock) {
-            return isOccupied;
-        }
+        return occupiedBy != PlaneIds.NONE;
+    }
+
+    public int getOccupiedById() {
+        return occupiedBy;
     }
 
+    // Name of the plane at the gate, or null
     public String getOccupiedBy() {
-        synchronized (lock) {
-            return occupiedBy;
+        int planeId = occupiedBy;
+        return planeId != PlaneIds.NONE ? PlaneIds.name(planeId) : null;
+    }
+
+    // Total time the gate has been occupied, including the current occupation
+    public long getOccupiedNanos() {
+        long completed = occupiedNanos;
+        long since = occupiedSince;
+        return since != 0 ? completed + System.nanoTime() - since : completed;
+    }
+
+    // Takes the gate for the plane if it is free; false if someone else got there first
+    public boolean tryClaim(int planeId) {
+        if (planeId == PlaneIds.NONE) {
+            throw new IllegalArgumentException("Gate " + gateNumber + " cannot be claimed without a plane");
+        }
+        if (!OCCUPIED_BY.compareAndSet(this, PlaneIds.NONE, planeId)) {
+            return false;
+        }
+        // The gate is ours; nobody releases this occupation before we return
+        beginOccupation(planeId, System.nanoTime());
+        GateRegistry index = registry;
+        if (index != null) {
+            index.occupied(registryIndex, planeId);
         }
+        wakeWaiters(); // A plane cleared ahead of time may be holding at the stand for this gate
+        return true;
     }
 
-    public void occupy(String planeName) {
-        synchronized (lock) {
-            if (isOccupied) {
-                throw new IllegalStateException("Gate " + gateNumber + " is already occupied!");
-            }
-            isOccupied = true;
-            occupiedBy = planeName;
-            lock.notifyAll(); // Notify any waiting threads
+    public void occupy(int planeId) {
+        if (!tryClaim(planeId)) {
+            throw new IllegalStateException("Gate " + gateNumber + " is already occupied!");
         }
     }
 
     public void release() {
-        synchronized (lock) {
-            if (!isOccupied) {
-                throw new IllegalStateException("Gate " + gateNumber + " is not occupied!");
-            }
-            isOccupied = false;
-            occupiedBy = null;
-            lock.notifyAll(); // Notify any waiting threads
+        int planeId = occupiedBy;
+        if (planeId == PlaneIds.NONE) {
+            throw new IllegalStateException("Gate " + gateNumber + " is not occupied!");
+        }
+        // Bookkeeping first: once the word is free the next plane may claim the gate
+        endOccupation(System.nanoTime());
+        occupiedSince = 0;
+        if (!OCCUPIED_BY.compareAndSet(this, planeId, PlaneIds.NONE)) {
+            throw new IllegalStateException("Gate " + gateNumber + " was released twice!");
+        }
+        GateRegistry index = registry;
+        if (index != null) {
+            index.released(registryIndex, planeId);
+        }
+        wakeWaiters();
+        Runnable listener = releaseListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    // Gives the gate straight from its occupant to the next plane. It is never free in between,
+    // so no other claim can get in and the release listener is not told.
+    public void handOver(int fromPlaneId, int toPlaneId) {
+        if (toPlaneId == PlaneIds.NONE) {
+            throw new IllegalArgumentException("Gate " + gateNumber + " cannot be handed over to no plane");
+        }
+        if (fromPlaneId == PlaneIds.NONE || occupiedBy != fromPlaneId) {
+            throw new IllegalStateException("Gate " + gateNumber + " is not occupied by " + PlaneIds.name(fromPlaneId) + "!");
+        }
+        long now = System.nanoTime();
+        endOccupation(now);
+        beginOccupation(toPlaneId, now);
+        if (!OCCUPIED_BY.compareAndSet(this, fromPlaneId, toPlaneId)) {
+            throw new IllegalStateException("Gate " + gateNumber + " was released while being handed over!");
+        }
+        GateRegistry index = registry;
+        if (index != null) {
+            index.handedOver(registryIndex, fromPlaneId, toPlaneId);
+        }
+        wakeWaiters(); // The next plane may be holding at the stand
+    }
+
+    private void beginOccupation(int planeId, long now) {
+        occupiedSince = now;
+        GateOccupancyEvent event = new GateOccupancyEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            event.plane = PlaneIds.name(planeId);
+            event.gate = gateNumber;
+            occupancyEvent = event;
         }
     }
 
+    private void endOccupation(long now) {
+        occupiedNanos += now - occupiedSince;
+        if (occupancyEvent != null) {
+            occupancyEvent.commit();
+            occupancyEvent = null;
+        }
+    }
+
+    private void wakeWaiters() {
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    // Returns once the gate is free; it may already be claimed again by the time the caller acts on it
     public void waitForAvailability() throws InterruptedException {
-        synchronized (lock) {
-            while (isOccupied) {
-                lock.wait();
+        await(PlaneIds.NONE);
+    }
+
+    // Returns once the gate has been handed to the plane, which ATC may clear before the gate is free
+    public void awaitOccupant(int planeId) throws InterruptedException {
+        await(planeId);
+    }
+
+    private void await(int state) throws InterruptedException {
+        if (occupiedBy == state) {
+            return;
+        }
+        Thread current = Thread.currentThread();
+        waiters.add(current); // Enqueued before the re-check, so a change in between still unparks us
+        try {
+            while (occupiedBy != state) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
             }
+        } finally {
+            waiters.remove(current);
         }
     }
 
@@ -72,4 +212,3 @@ public class Gate {
         return "Gate-" + gateNumber;
     }
 }
-
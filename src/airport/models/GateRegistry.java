@@ -0,0 +1,128 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+// Index over all gates, kept up to date by Gate.tryClaim()/release()/handOver():
+// a plane id -> gate table and a bitmap with one bit set per free gate.
+// Lookups and claims read these directly, no lock is taken anywhere.
+public final class GateRegistry {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final List<Gate> gates;
+    private final long[] freeBits; // Bit i set = gates.get(i) is free
+    private final PlaneTable gateByPlane; // Gate index + 1, 0 = no gate
+
+    public GateRegistry(List<Gate> gates) {
+        this.gates = new ArrayList<>(gates);
+        this.freeBits = new long[(gates.size() + 63) / 64];
+        this.gateByPlane = new PlaneTable();
+        for (int i = 0; i < this.gates.size(); i++) {
+            Gate gate = this.gates.get(i);
+            gate.register(this, i);
+            int planeId = gate.getOccupiedById();
+            if (planeId == PlaneIds.NONE) {
+                setFree(i);
+            } else {
+                gateByPlane.set(planeId, i + 1);
+            }
+        }
+    }
+
+    // ===== Called by Gate right after a claim / a release / a handover =====
+    void occupied(int index, int planeId) {
+        gateByPlane.set(planeId, index + 1);
+        updateFreeBit(index);
+    }
+
+    void released(int index, int planeId) {
+        gateByPlane.set(planeId, 0);
+        updateFreeBit(index);
+    }
+
+    // The gate stays occupied, so its bit is left alone
+    void handedOver(int index, int fromPlaneId, int toPlaneId) {
+        gateByPlane.set(fromPlaneId, 0);
+        gateByPlane.set(toPlaneId, index + 1);
+    }
+
+    // Copies the gate's state into its bit. A claim and a release can update the bit in either order,
+    // so whoever writes it re-reads the state afterwards and goes again if it changed in between.
+    private void updateFreeBit(int index) {
+        Gate gate = gates.get(index);
+        boolean free;
+        do {
+            free = gate.getOccupiedById() == PlaneIds.NONE;
+            if (free) {
+                setFree(index);
+            } else {
+                setOccupied(index);
+            }
+        } while ((gate.getOccupiedById() == PlaneIds.NONE) != free);
+    }
+
+    private void setFree(int index) {
+        WORDS.getAndBitwiseOr(freeBits, index >>> 6, 1L << index);
+    }
+
+    private void setOccupied(int index) {
+        WORDS.getAndBitwiseAnd(freeBits, index >>> 6, ~(1L << index));
+    }
+
+    // ===== Lookups =====
+    // Lowest numbered free gate (same choice as scanning the list in order), or null
+    public Gate findAvailableGate() {
+        for (int word = 0; word < freeBits.length; word++) {
+            long bits = (long) WORDS.getVolatile(freeBits, word);
+            if (bits != 0) {
+                return gates.get(word * 64 + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        return null;
+    }
+
+    // Claims the lowest numbered free gate for the plane, or returns null if none was free during the scan.
+    // Safe to call from several threads at once: a lost CAS moves on to the next free gate instead of
+    // waiting for the winner, and a gate freed meanwhile fires its release listener, which prompts a retry.
+    public Gate claimAvailableGate(int planeId) {
+        for (int word = 0; word < freeBits.length; word++) {
+            long bits = (long) WORDS.getVolatile(freeBits, word);
+            while (bits != 0) {
+                Gate gate = gates.get(word * 64 + Long.numberOfTrailingZeros(bits));
+                if (gate.tryClaim(planeId)) {
+                    return gate;
+                }
+                bits &= bits - 1;
+            }
+        }
+        return null;
+    }
+
+    public Gate getGateForPlane(int planeId) {
+        int index = gateByPlane.get(planeId);
+        return index != 0 ? gates.get(index - 1) : null;
+    }
+
+    public int getFreeGateCount() {
+        int count = 0;
+        for (int word = 0; word < freeBits.length; word++) {
+            count += Long.bitCount((long) WORDS.getVolatile(freeBits, word));
+        }
+        return count;
+    }
+
+    public List<Gate> getGates() {
+        return gates;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+// The pieces of work that make up a turnaround at the gate
+public enum GroundTask {
+    DISEMBARK("Disembark"),
+    REFUEL("Refuelling"),
+    CLEAN("Cleaning"),
+    SUPPLY("Supply"),
+    EMBARK("Embark");
+
+    private final String label;
+
+    GroundTask(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Compact plane handles. Each plane gets a small int id when it is created and hands it back once it
+// is gone, so ids stay dense (bounded by the planes in the system, not by how many have ever flown)
+// and per-plane state can live in arrays indexed by id. Names are only looked up for logging.
+public final class PlaneIds {
+    public static final int NONE = 0; // No plane, e.g. a free gate or an unreserved runway
+    public static final int MAX_PLANES = 1 << 22; // At the same time
+
+    static final int CHUNK_BITS = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Chunks are created on first use and never move, so lookups need no lock
+    private static final AtomicReferenceArray<AtomicReferenceArray<String>> names =
+            new AtomicReferenceArray<>(MAX_PLANES >>> CHUNK_BITS);
+
+    // ===== Free ids, most recently returned first =====
+    private static final Object lock = new Object();
+    private static int[] free = new int[64]; // Guarded by lock
+    private static int freeCount;
+    private static int nextId = 1;
+
+    private PlaneIds() {
+    }
+
+    public static int register(String planeName) {
+        int id;
+        synchronized (lock) {
+            if (freeCount > 0) {
+                id = free[--freeCount];
+            } else if (nextId < MAX_PLANES) {
+                id = nextId++;
+            } else {
+                throw new IllegalStateException("More than " + (MAX_PLANES - 1) + " planes at once");
+            }
+        }
+        nameChunk(id).set(id & CHUNK_MASK, planeName);
+        return id;
+    }
+
+    // The id may be handed to the next plane straight away, nothing may still use it
+    public static void unregister(int planeId) {
+        if (planeId == NONE) {
+            return;
+        }
+        nameChunk(planeId).set(planeId & CHUNK_MASK, null);
+        synchronized (lock) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, free.length * 2);
+            }
+            free[freeCount++] = planeId;
+        }
+    }
+
+    public static String name(int planeId) {
+        AtomicReferenceArray<String> chunk = planeId > NONE && planeId < MAX_PLANES ? names.get(planeId >>> CHUNK_BITS) : null;
+        String name = chunk != null ? chunk.get(planeId & CHUNK_MASK) : null;
+        return name != null ? name : "Plane#" + planeId;
+    }
+
+    // Ids handed out so far (live and free), i.e. the size per-plane arrays grow to
+    public static int getHighWaterMark() {
+        synchronized (lock) {
+            return nextId;
+        }
+    }
+
+    private static AtomicReferenceArray<String> nameChunk(int planeId) {
+        int index = planeId >>> CHUNK_BITS;
+        AtomicReferenceArray<String> chunk = names.get(index);
+        if (chunk == null) {
+            names.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = names.get(index);
+        }
+        return chunk;
+    }
+}
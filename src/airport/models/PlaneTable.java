@@ -0,0 +1,39 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// One int per plane id, 0 until set. Backed by fixed-size chunks that are created on first use
+// and never copied, so reads and writes from any thread need no lock.
+public class PlaneTable {
+    private final AtomicReferenceArray<AtomicIntegerArray> chunks =
+            new AtomicReferenceArray<>(PlaneIds.MAX_PLANES >>> PlaneIds.CHUNK_BITS);
+
+    public int get(int planeId) {
+        AtomicIntegerArray chunk = chunks.get(planeId >>> PlaneIds.CHUNK_BITS);
+        return chunk != null ? chunk.get(planeId & PlaneIds.CHUNK_MASK) : 0;
+    }
+
+    public void set(int planeId, int value) {
+        chunk(planeId).set(planeId & PlaneIds.CHUNK_MASK, value);
+    }
+
+    private AtomicIntegerArray chunk(int planeId) {
+        int index = planeId >>> PlaneIds.CHUNK_BITS;
+        AtomicIntegerArray chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicIntegerArray(PlaneIds.CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+}
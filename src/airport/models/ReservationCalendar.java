@@ -0,0 +1,146 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+// Who holds, or is due to hold, each of a set of resources and for how long: one time-ordered list of
+// bookings per resource, plus an index of the resources by the time their last booking ends.
+// A plane has at most one booking. Times are nanoseconds on whatever clock the caller uses.
+// Not thread-safe; RunwayScheduler uses it under the ATC monitor.
+public class ReservationCalendar {
+    public static final long OPEN_END = Long.MAX_VALUE; // End not known yet
+
+    public static final class Booking {
+        private final int resource;
+        private final int planeId;
+        private final long sequence; // Booking order, breaks ties between equal start times
+        private long start; // When the plane gets the resource, which is what the hold time is measured from
+        private long end;
+
+        private Booking(int resource, int planeId, long sequence, long start, long end) {
+            this.resource = resource;
+            this.planeId = planeId;
+            this.sequence = sequence;
+            this.start = start;
+            this.end = end;
+        }
+
+        public int getResource() {
+            return resource;
+        }
+
+        public int getPlaneId() {
+            return planeId;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+    }
+
+    private static final Comparator<Booking> BY_START =
+            Comparator.comparingLong(Booking::getStart).thenComparingLong(booking -> booking.sequence);
+    private static final Comparator<Booking> BY_END =
+            Comparator.comparingLong(Booking::getEnd).thenComparingInt(Booking::getResource);
+
+    private final List<TreeSet<Booking>> byResource;
+    private final TreeSet<Booking> lastByEnd; // Last booking of every booked resource
+    private final PlaneTable resourceByPlane; // Resource + 1, 0 = no booking
+    private long nextSequence;
+
+    public ReservationCalendar(int resources) {
+        this.byResource = new ArrayList<>(resources);
+        for (int i = 0; i < resources; i++) {
+            byResource.add(new TreeSet<>(BY_START));
+        }
+        this.lastByEnd = new TreeSet<>(BY_END);
+        this.resourceByPlane = new PlaneTable();
+    }
+
+    public Booking book(int resource, int planeId, long start, long end) {
+        if (resourceByPlane.get(planeId) != 0) {
+            throw new IllegalStateException(PlaneIds.name(planeId) + " already has a booking");
+        }
+        TreeSet<Booking> bookings = byResource.get(resource);
+        Booking booking = new Booking(resource, planeId, nextSequence++, start, end);
+        removeLast(bookings);
+        bookings.add(booking);
+        lastByEnd.add(bookings.last());
+        resourceByPlane.set(planeId, resource + 1);
+        return booking;
+    }
+
+    public Booking find(int planeId) {
+        int resource = resourceByPlane.get(planeId) - 1;
+        if (resource < 0) {
+            return null;
+        }
+        for (Booking booking : byResource.get(resource)) {
+            if (booking.planeId == planeId) {
+                return booking;
+            }
+        }
+        return null;
+    }
+
+    public void cancel(Booking booking) {
+        TreeSet<Booking> bookings = byResource.get(booking.resource);
+        removeLast(bookings);
+        bookings.remove(booking);
+        if (!bookings.isEmpty()) {
+            lastByEnd.add(bookings.last());
+        }
+        resourceByPlane.set(booking.planeId, 0);
+    }
+
+    // A booking that starts earlier or later than planned, e.g. a gate handed over before or after its
+    // predicted release. A known end moves with it, the length of the booking stays the same.
+    public void moveStart(Booking booking, long start) {
+        TreeSet<Booking> bookings = byResource.get(booking.resource);
+        removeLast(bookings);
+        bookings.remove(booking);
+        if (booking.end != OPEN_END) {
+            booking.end += start - booking.start;
+        }
+        booking.start = start;
+        bookings.add(booking);
+        lastByEnd.add(bookings.last());
+    }
+
+    private void removeLast(TreeSet<Booking> bookings) {
+        if (!bookings.isEmpty()) {
+            lastByEnd.remove(bookings.last());
+        }
+    }
+
+    // Earliest booking on the resource (the current holder), or null
+    public Booking first(int resource) {
+        TreeSet<Booking> bookings = byResource.get(resource);
+        return bookings.isEmpty() ? null : bookings.first();
+    }
+
+    public int size(int resource) {
+        return byResource.get(resource).size();
+    }
+
+    // Booked resources in the order they become free
+    public NavigableSet<Booking> byFreeTime() {
+        return lastByEnd;
+    }
+}
@@ -9,49 +9,171 @@ package airport.models;
  * @author junyo
  */
 
-import java.util.concurrent.locks.ReentrantLock;
+import airport.jfr.RunwayAcquireEvent;
+import airport.jfr.RunwayHoldEvent;
+import airport.utils.LatencyHistogram;
+import airport.utils.LockProfiler;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Runway {
+    // Which operations a runway may be assigned to
+    public enum Use {
+        MIXED("mixed"),
+        LANDING("landing only"),
+        TAKEOFF("takeoff only");
+
+        private final String label;
+
+        Use(String label) {
+            this.label = label;
+        }
+
+        public boolean allows(boolean landing) {
+            return this == MIXED || (this == LANDING) == landing;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final int runwayNumber;
+    private final Use use;
     private final ReentrantLock runwayLock;
-    private String currentPlane;
+    private final LockProfiler.LockStats lockStats; // Null unless lock profiling is on
+    private int currentPlane; // Plane id, PlaneIds.NONE while free
     private boolean isLanding; // true for landing, false for takeoff
+    private volatile int reservedFor; // Plane cleared by ATC but not yet on the runway, PlaneIds.NONE if none
+    private volatile Runnable releaseListener; // Notified whenever the runway becomes free
+    private long acquiredNanos; // Guarded by runwayLock
+    private RunwayHoldEvent holdEvent; // Guarded by runwayLock, only set while JFR records it
+
+    // ===== Usage statistics =====
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder landings = new LongAdder();
+    private final LongAdder takeoffs = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram(); // Request to grant, microseconds
 
     public Runway() {
+        this(1, Use.MIXED);
+    }
+
+    public Runway(int runwayNumber, Use use) {
+        this.runwayNumber = runwayNumber;
+        this.use = use;
         this.runwayLock = new ReentrantLock(true); // true for fair lock
-        this.currentPlane = null;
+        this.lockStats = LockProfiler.register("Runway-" + runwayNumber);
+        this.currentPlane = PlaneIds.NONE;
         this.isLanding = false;
+        this.reservedFor = PlaneIds.NONE;
+    }
+
+    public void setReleaseListener(Runnable listener) {
+        this.releaseListener = listener;
+    }
+
+    // Called by ATC when it clears a plane, so no second plane is cleared before the first one arrives
+    public void reserve(int planeId) {
+        reservedFor = planeId;
+    }
+
+    public boolean acquireForLanding(int planeId, long timeout) throws InterruptedException {
+        return acquire(planeId, true, timeout);
     }
 
-    public boolean acquireForLanding(String planeName, long timeout) throws InterruptedException {
-        if (runwayLock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
-            currentPlane = planeName;
-            isLanding = true;
+    public boolean acquireForTakeoff(int planeId, long timeout) throws InterruptedException {
+        return acquire(planeId, false, timeout);
+    }
+
+    private boolean acquire(int planeId, boolean landing, long timeout) throws InterruptedException {
+        RunwayAcquireEvent acquireEvent = new RunwayAcquireEvent();
+        acquireEvent.begin();
+        long requested = LockProfiler.now();
+        boolean acquired;
+        try {
+            acquired = runwayLock.tryLock(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            cancelReservation(planeId); // The plane is not coming either
+            throw e;
+        }
+        acquireEvent.end();
+        if (acquireEvent.shouldCommit()) {
+            acquireEvent.plane = PlaneIds.name(planeId);
+            acquireEvent.runway = runwayNumber;
+            acquireEvent.landing = landing;
+            acquireEvent.acquired = acquired;
+            acquireEvent.commit();
+        }
+        if (acquired) {
+            LockProfiler.acquired(lockStats, requested);
+            startHold(planeId, landing);
+            if (reservedFor == planeId) {
+                reservedFor = PlaneIds.NONE;
+            }
             return true;
         }
+        cancelReservation(planeId);
         return false;
     }
 
-    public boolean acquireForTakeoff(String planeName, long timeout) throws InterruptedException {
-        if (runwayLock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
-            currentPlane = planeName;
-            isLanding = false;
-            return true;
+    // So the runway does not stay blocked for a plane that is not coming
+    public void cancelReservation(int planeId) {
+        if (reservedFor == planeId) {
+            reservedFor = PlaneIds.NONE;
+            notifyReleased();
+        }
+    }
+
+    private void startHold(int planeId, boolean landing) {
+        currentPlane = planeId;
+        isLanding = landing;
+        acquiredNanos = System.nanoTime();
+        RunwayHoldEvent event = new RunwayHoldEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            event.plane = PlaneIds.name(planeId);
+            event.runway = runwayNumber;
+            event.landing = landing;
+            holdEvent = event;
         }
-        return false;
     }
 
     public void release() {
-        String plane = currentPlane;
-        currentPlane = null;
+        recordOperation(isLanding, System.nanoTime() - acquiredNanos);
+        RunwayHoldEvent event = holdEvent;
+        if (event != null) {
+            holdEvent = null;
+            event.commit();
+        }
+        currentPlane = PlaneIds.NONE;
+        LockProfiler.released(lockStats, acquiredNanos);
         runwayLock.unlock();
+        notifyReleased();
+    }
+
+    private void notifyReleased() {
+        Runnable listener = releaseListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return runwayLock.isHeldByCurrentThread();
     }
 
     public boolean isOccupied() {
         return runwayLock.isLocked();
     }
 
-    public String getCurrentPlane() {
+    // Free and not promised to any plane
+    public boolean isAvailable() {
+        return !runwayLock.isLocked() && reservedFor == PlaneIds.NONE;
+    }
+
+    public int getCurrentPlane() {
         return currentPlane;
     }
 
@@ -59,11 +181,44 @@ public class Runway {
         return isLanding;
     }
 
-    // Force acquire for emergency situations
-    public void forceAcquireForEmergencyLanding(String planeName) throws InterruptedException {
-        runwayLock.lockInterruptibly(); // Can be interrupted if needed
-        currentPlane = planeName;
-        isLanding = true;
+    public int getRunwayNumber() {
+        return runwayNumber;
+    }
+
+    public Use getUse() {
+        return use;
+    }
+
+    // ===== Usage statistics =====
+    // Called on release; the discrete-event simulation calls it directly with virtual durations
+    public void recordOperation(boolean landing, long occupiedNanos) {
+        busyNanos.add(occupiedNanos);
+        if (landing) {
+            landings.increment();
+        } else {
+            takeoffs.increment();
+        }
+    }
+
+    // Time the request spent in the runway queue before ATC granted it this runway
+    public void recordQueueWait(long waitNanos) {
+        queueWait.record(waitNanos / 1000);
+    }
+
+    public long getBusyNanos() {
+        return busyNanos.sum();
+    }
+
+    public long getLandings() {
+        return landings.sum();
+    }
+
+    public long getTakeoffs() {
+        return takeoffs.sum();
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
     }
 }
 
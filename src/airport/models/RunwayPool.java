@@ -0,0 +1,148 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+// The airport's runways and the rule ATC uses to pick one for each grant.
+public class RunwayPool {
+    // How a free runway is chosen when more than one could serve the request
+    public enum Strategy {
+        FIRST_AVAILABLE,   // Lowest numbered runway
+        PREFER_DEDICATED,  // Landing/takeoff-only runways first, keeping mixed runways free for the other direction
+        LEAST_UTILIZED     // Runway with the least busy time so far
+    }
+
+    private final List<Runway> runways;
+    private volatile Strategy strategy;
+
+    public RunwayPool(List<Runway> runways) {
+        this(runways, Strategy.PREFER_DEDICATED);
+    }
+
+    public RunwayPool(List<Runway> runways, Strategy strategy) {
+        if (runways.isEmpty()) {
+            throw new IllegalArgumentException("At least one runway is required");
+        }
+        this.runways = new ArrayList<>(runways);
+        this.strategy = strategy;
+    }
+
+    // "3" gives three mixed runways, otherwise one letter per runway: L = landing only, T = takeoff only, M = mixed.
+    // E.g. "LT" is one landing and one takeoff runway.
+    public static RunwayPool fromSpec(String spec) {
+        List<Runway> runways = new ArrayList<>();
+        if (spec.chars().allMatch(Character::isDigit)) {
+            int count = Integer.parseInt(spec);
+            for (int i = 1; i <= count; i++) {
+                runways.add(new Runway(i, Runway.Use.MIXED));
+            }
+        } else {
+            for (char c : spec.toUpperCase().toCharArray()) {
+                Runway.Use use;
+                switch (c) {
+                    case 'L': use = Runway.Use.LANDING; break;
+                    case 'T': use = Runway.Use.TAKEOFF; break;
+                    case 'M': use = Runway.Use.MIXED; break;
+                    default: throw new IllegalArgumentException("Unknown runway type '" + c + "' in " + spec);
+                }
+                runways.add(new Runway(runways.size() + 1, use));
+            }
+        }
+        // Every request needs at least one runway that can serve it
+        boolean canLand = false;
+        boolean canTakeOff = false;
+        for (Runway runway : runways) {
+            canLand |= runway.getUse().allows(true);
+            canTakeOff |= runway.getUse().allows(false);
+        }
+        if (!canLand || !canTakeOff) {
+            throw new IllegalArgumentException("Runways " + spec + " cannot serve both landings and takeoffs");
+        }
+        return new RunwayPool(runways);
+    }
+
+    public List<Runway> getRunways() {
+        return Collections.unmodifiableList(runways);
+    }
+
+    public int size() {
+        return runways.size();
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public boolean hasAvailable(boolean landing) {
+        return select(landing) != null;
+    }
+
+    public boolean hasAvailable(boolean landing, Predicate<Runway> isFree) {
+        return select(landing, isFree) != null;
+    }
+
+    // Free runway for the operation according to the strategy, or null
+    public Runway select(boolean landing) {
+        return select(landing, Runway::isAvailable);
+    }
+
+    // The discrete-event simulation tracks runway occupancy itself and passes its own check
+    public Runway select(boolean landing, Predicate<Runway> isFree) {
+        Runway best = null;
+        for (Runway runway : runways) {
+            if (!runway.getUse().allows(landing) || !isFree.test(runway)) {
+                continue;
+            }
+            if (best == null || isBetter(runway, best)) {
+                best = runway;
+            }
+        }
+        return best;
+    }
+
+    private boolean isBetter(Runway candidate, Runway best) {
+        switch (strategy) {
+            case PREFER_DEDICATED:
+                return candidate.getUse() != Runway.Use.MIXED && best.getUse() == Runway.Use.MIXED;
+            case LEAST_UTILIZED:
+                return candidate.getBusyNanos() < best.getBusyNanos();
+            default:
+                return false; // Runways are scanned in number order, the first one wins
+        }
+    }
+
+    public String getUtilizationSummary(long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Runway Utilization (").append(strategy).append(") ---\n");
+        for (Runway runway : runways) {
+            double busy = elapsedNanos > 0 ? 100.0 * runway.getBusyNanos() / elapsedNanos : 0;
+            sb.append("Runway-").append(runway.getRunwayNumber())
+              .append(" (").append(runway.getUse().getLabel()).append("): ")
+              .append(String.format("%.1f%% busy", busy))
+              .append(", ").append(runway.getLandings()).append(" landings")
+              .append(", ").append(runway.getTakeoffs()).append(" takeoffs");
+            if (runway.getQueueWait().getCount() > 0) {
+                sb.append(String.format(", queue wait avg %.3f s, P99 %.3f s",
+                        runway.getQueueWait().getMean() / 1_000_000.0,
+                        runway.getQueueWait().getPercentile(99) / 1_000_000.0));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
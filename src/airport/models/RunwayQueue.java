@@ -0,0 +1,165 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+// Runway requests ordered by emergency level (highest first), then arrival order.
+// Landings and takeoffs are kept apart so ATC can look at the first of each directly,
+// and a per-plane index (arrays indexed by plane id) makes duplicate checks O(1). Not thread-safe; ATC guards it.
+public class RunwayQueue {
+    public static final Comparator<RunwayRequest> PRIORITY_ORDER =
+        Comparator.comparingInt(RunwayRequest::getEmergencyLevel).reversed()
+                  .thenComparingLong(RunwayRequest::getSequence);
+
+    private final TreeSet<RunwayRequest> landings;
+    private final TreeSet<RunwayRequest> takeoffs;
+    private RunwayRequest[] landingIndex; // Grown to the highest plane id seen
+    private RunwayRequest[] takeoffIndex;
+    private long nextSequence;
+
+    // Queue depths for monitoring, readable without the ATC lock (only written under it)
+    private volatile int landingDepth;
+    private volatile int takeoffDepth;
+    private volatile int emergencyDepth;
+
+    public RunwayQueue() {
+        this.landings = new TreeSet<>(PRIORITY_ORDER);
+        this.takeoffs = new TreeSet<>(PRIORITY_ORDER);
+        this.landingIndex = new RunwayRequest[64];
+        this.takeoffIndex = new RunwayRequest[64];
+        this.nextSequence = 0;
+    }
+
+    // Returns false if the plane already has a request of the same kind queued
+    public boolean offer(RunwayRequest request) {
+        int planeId = request.getPlaneId();
+        if (planeId >= landingIndex.length) {
+            int length = Math.max(planeId + 1, landingIndex.length * 2);
+            landingIndex = Arrays.copyOf(landingIndex, length);
+            takeoffIndex = Arrays.copyOf(takeoffIndex, length);
+        }
+        RunwayRequest[] index = request.isLanding() ? landingIndex : takeoffIndex;
+        if (index[planeId] != null) {
+            return false;
+        }
+        index[planeId] = request;
+        request.setSequence(nextSequence++);
+        (request.isLanding() ? landings : takeoffs).add(request);
+        publishDepths(request, 1);
+        return true;
+    }
+
+    public boolean containsLanding(int planeId) {
+        return getLanding(planeId) != null;
+    }
+
+    public boolean containsTakeoff(int planeId) {
+        return getTakeoff(planeId) != null;
+    }
+
+    public RunwayRequest getLanding(int planeId) {
+        return planeId < landingIndex.length ? landingIndex[planeId] : null;
+    }
+
+    public RunwayRequest getTakeoff(int planeId) {
+        return planeId < takeoffIndex.length ? takeoffIndex[planeId] : null;
+    }
+
+    public RunwayRequest removeLanding(int planeId) {
+        RunwayRequest request = getLanding(planeId);
+        if (request != null) {
+            landingIndex[planeId] = null;
+            landings.remove(request);
+            publishDepths(request, -1);
+        }
+        return request;
+    }
+
+    public RunwayRequest removeTakeoff(int planeId) {
+        RunwayRequest request = getTakeoff(planeId);
+        if (request != null) {
+            takeoffIndex[planeId] = null;
+            takeoffs.remove(request);
+            publishDepths(request, -1);
+        }
+        return request;
+    }
+
+    public boolean remove(RunwayRequest request) {
+        if (request.isLanding()) {
+            return removeLanding(request.getPlaneId()) != null;
+        }
+        return removeTakeoff(request.getPlaneId()) != null;
+    }
+
+    private void publishDepths(RunwayRequest request, int change) {
+        if (request.isLanding()) {
+            landingDepth = landings.size();
+        } else {
+            takeoffDepth = takeoffs.size();
+        }
+        if (request.isEmergency()) {
+            emergencyDepth += change;
+        }
+    }
+
+    public RunwayRequest peekLanding() {
+        return landings.isEmpty() ? null : landings.first();
+    }
+
+    public RunwayRequest peekTakeoff() {
+        return takeoffs.isEmpty() ? null : takeoffs.first();
+    }
+
+    // Highest priority request of either kind
+    public RunwayRequest peek() {
+        RunwayRequest landing = peekLanding();
+        RunwayRequest takeoff = peekTakeoff();
+        if (landing == null) {
+            return takeoff;
+        }
+        if (takeoff == null) {
+            return landing;
+        }
+        return PRIORITY_ORDER.compare(landing, takeoff) <= 0 ? landing : takeoff;
+    }
+
+    public int landingCount() {
+        return landings.size();
+    }
+
+    public int takeoffCount() {
+        return takeoffs.size();
+    }
+
+    public int size() {
+        return landings.size() + takeoffs.size();
+    }
+
+    // ===== Lock-free reads for monitoring =====
+    public int getLandingDepth() {
+        return landingDepth;
+    }
+
+    public int getTakeoffDepth() {
+        return takeoffDepth;
+    }
+
+    public int getEmergencyDepth() {
+        return emergencyDepth;
+    }
+
+    public boolean isEmpty() {
+        return landings.isEmpty() && takeoffs.isEmpty();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.utils.Ticket;
+import java.util.HashSet;
+import java.util.Set;
+
+public class RunwayRequest {
+    private final int planeId;
+    private final boolean isLanding; // true for landing, false for takeoff
+    private final int emergencyLevel; // 1 = normal, 3 = highest emergency
+    private final long timestamp;
+    private final long requestNanos; // For measuring request-to-grant latency
+    private final Ticket<Clearance> clearance; // Completed by ATC with the plane's runway and gate
+    private long sequence; // Arrival order, assigned by RunwayQueue
+    private Set<String> loggedDenials; // Denial reasons already logged, dropped with the request once it is granted
+
+    public RunwayRequest(int planeId, boolean isLanding, int emergencyLevel) {
+        this(planeId, isLanding, emergencyLevel, new Ticket<>());
+    }
+
+    // Used when a request is re-queued (e.g. emergency upgrade) and the plane already holds its ticket
+    public RunwayRequest(int planeId, boolean isLanding, int emergencyLevel, Ticket<Clearance> clearance) {
+        this.clearance = clearance;
+        this.planeId = planeId;
+        this.isLanding = isLanding;
+        this.emergencyLevel = emergencyLevel;
+        this.timestamp = System.currentTimeMillis();
+        this.requestNanos = System.nanoTime();
+    }
+
+    public int getPlaneId() {
+        return planeId;
+    }
+
+    // For logging only
+    public String getPlaneName() {
+        return PlaneIds.name(planeId);
+    }
+
+    public boolean isLanding() {
+        return isLanding;
+    }
+
+    public boolean isEmergency() {
+        return emergencyLevel > 1;
+    }
+
+    public int getEmergencyLevel() {
+        return emergencyLevel;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Ticket<Clearance> getClearance() {
+        return clearance;
+    }
+
+    public long getRequestNanos() {
+        return requestNanos;
+    }
+
+    // True the first time ATC refuses this request for the reason, so each denial is only logged once
+    public boolean firstDenial(String reason) {
+        if (loggedDenials == null) {
+            loggedDenials = new HashSet<>(4);
+        }
+        return loggedDenials.add(reason);
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    @Override
+    public String toString() {
+        return (isLanding ? "Landing" : "Takeoff") + "[" + getPlaneName() + ", level " + emergencyLevel + "]";
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.ReservationCalendar.Booking;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The runway and gate rules ATC applies when deciding who gets the runway next.
+// Shared by the threaded AirTrafficControl and the discrete-event simulation so both
+// make exactly the same decisions. Not thread-safe; AirTrafficControl calls it under its monitor.
+//
+// With look-ahead on, a landing may also be cleared for a gate that is still occupied, when the
+// gate's predicted release is no later than the plane reaching the stand. The plane then holds at
+// the stand until the gate is handed over. It still needs a free ground slot, and a gate only ever
+// has one plane at it and one waiting for it. Times passed in are nanoseconds on the caller's clock.
+public class RunwayScheduler {
+    public static final int MAX_PLANES_ON_GROUND = 3;
+
+    private final int maxPlanesOnGround;
+    private final List<Gate> gates;
+    private final GateRegistry gateRegistry;
+    private final RunwayQueue queue;
+    private final AtomicInteger planesOnGround; // Decremented by departing planes outside the ATC monitor
+    private final ReservationCalendar gateCalendar; // Resource = index into gates
+    private final TurnaroundPredictor predictor;
+    private boolean lookAhead;
+    private long lookAheadNanos; // Landing clearance until the plane reaches the gate stand
+    private long landingsCleared;
+    private long landingsPreCleared;
+
+    public RunwayScheduler(List<Gate> gates) {
+        this(gates, MAX_PLANES_ON_GROUND);
+    }
+
+    public RunwayScheduler(List<Gate> gates, int maxPlanesOnGround) {
+        this.maxPlanesOnGround = maxPlanesOnGround;
+        this.gates = new ArrayList<>(gates);
+        this.gateRegistry = new GateRegistry(this.gates);
+        this.queue = new RunwayQueue();
+        this.planesOnGround = new AtomicInteger(0);
+        this.gateCalendar = new ReservationCalendar(this.gates.size());
+        this.predictor = new TurnaroundPredictor();
+    }
+
+    public void setLookAhead(boolean enabled, long leadNanos) {
+        this.lookAhead = enabled;
+        this.lookAheadNanos = leadNanos;
+    }
+
+    public RunwayQueue getQueue() {
+        return queue;
+    }
+
+    public List<Gate> getGates() {
+        return gates;
+    }
+
+    public int getMaxPlanesOnGround() {
+        return maxPlanesOnGround;
+    }
+
+    public int getPlanesOnGround() {
+        return planesOnGround.get();
+    }
+
+    public boolean canProcessLandingRequest(long now) {
+        // Can land if airport not full AND there's an available gate, now or by the time the plane gets there
+        return planesOnGround.get() < maxPlanesOnGround && (findAvailableGate() != null || lookAheadGate(now) != null);
+    }
+
+    public boolean canProcessTakeoffRequest(RunwayRequest request) {
+        // Can take off if the plane is actually at a gate
+        return getGateForPlane(request.getPlaneId()) != null;
+    }
+
+    // Why landings are currently refused, or null if they are not
+    public String landingDenialReason(long now) {
+        if (planesOnGround.get() >= maxPlanesOnGround) {
+            return "airport full";
+        } else if (findAvailableGate() == null && lookAheadGate(now) == null) {
+            return "no gates available";
+        }
+        return null;
+    }
+
+    // Removes and returns the highest priority request that can be served now, or null.
+    // Only the first landing and the first takeoff can be next, everything behind them keeps its place.
+    public RunwayRequest nextRequest(long now) {
+        return nextRequest(true, true, now);
+    }
+
+    // Same, but landings or takeoffs are only considered while a runway that can take them is free
+    public RunwayRequest nextRequest(boolean landingRunwayFree, boolean takeoffRunwayFree, long now) {
+        RunwayRequest landing = landingRunwayFree ? queue.peekLanding() : null;
+        if (landing != null && !canProcessLandingRequest(now)) {
+            landing = null;
+        }
+        RunwayRequest takeoff = takeoffRunwayFree ? queue.peekTakeoff() : null;
+        if (takeoff != null && !canProcessTakeoffRequest(takeoff)) {
+            takeoff = null;
+        }
+
+        RunwayRequest next;
+        if (landing == null) {
+            next = takeoff;
+        } else if (takeoff == null) {
+            next = landing;
+        } else {
+            next = RunwayQueue.PRIORITY_ORDER.compare(landing, takeoff) <= 0 ? landing : takeoff;
+        }
+        if (next != null) {
+            queue.remove(next);
+        }
+        return next;
+    }
+
+    // Assigns a gate and a ground slot to a cleared landing. The gate may still be occupied
+    // if it was chosen by look-ahead; the plane gets it when the current holder is cleared to leave.
+    public Gate clearLanding(RunwayRequest request, long now) {
+        int planeId = request.getPlaneId();
+        Gate gate = gateRegistry.claimAvailableGate(planeId);
+        if (gate != null) {
+            gateCalendar.book(gate.getRegistryIndex(), planeId, now, predictedRelease(now));
+        } else {
+            gate = lookAheadGate(now);
+            if (gate == null) {
+                return null;
+            }
+            // Its hold starts when the gate is handed over, not at clearance; vacate() moves it to the real time
+            Booking holder = gateCalendar.first(gate.getRegistryIndex());
+            gateCalendar.book(gate.getRegistryIndex(), planeId, holder.getEnd(), predictedRelease(holder.getEnd()));
+            landingsPreCleared++;
+        }
+        planesOnGround.incrementAndGet();
+        landingsCleared++;
+        return gate;
+    }
+
+    // Frees the gate of a cleared takeoff, the ground slot is kept until the plane has left
+    public Gate clearTakeoff(RunwayRequest request, long now) {
+        Gate gate = getGateForPlane(request.getPlaneId());
+        if (gate != null) {
+            vacate(gate, request.getPlaneId(), now, true);
+        }
+        return gate;
+    }
+
+    // Undoes clearLanding() for a plane that never made it onto the runway
+    public Gate abortLanding(int planeId, long now) {
+        Gate gate = getGateForPlane(planeId);
+        if (gate != null) {
+            vacate(gate, planeId, now, false);
+            planesOnGround.decrementAndGet();
+            return gate;
+        }
+        Booking booking = gateCalendar.find(planeId); // Cleared ahead of time, the gate was never handed over
+        if (booking != null) {
+            gateCalendar.cancel(booking);
+            planesOnGround.decrementAndGet();
+            return gates.get(booking.getResource());
+        }
+        return null;
+    }
+
+    private void vacate(Gate gate, int planeId, long now, boolean departing) {
+        Booking booking = gateCalendar.find(planeId);
+        if (booking != null) {
+            if (departing) {
+                predictor.record(now - booking.getStart()); // From claim or handover, stand holds do not count
+            }
+            gateCalendar.cancel(booking);
+        }
+        Booking next = gateCalendar.first(gate.getRegistryIndex());
+        if (next != null) {
+            // Straight to the plane cleared for it ahead of time, the gate is never free in between
+            gate.handOver(planeId, next.getPlaneId());
+            gateCalendar.moveStart(next, now);
+        } else {
+            gate.release();
+        }
+    }
+
+    // ===== Look-ahead =====
+    private long predictedRelease(long occupiedAt) {
+        return predictor.isReady() ? occupiedAt + predictor.predict() : ReservationCalendar.OPEN_END;
+    }
+
+    // Occupied gate, with nobody waiting for it yet, that is predicted to be free by the time
+    // a plane cleared now reaches the stand; the one released soonest. Null if there is none.
+    private Gate lookAheadGate(long now) {
+        if (!lookAhead || !predictor.isReady()) {
+            return null;
+        }
+        for (Booking booking : gateCalendar.byFreeTime()) {
+            if (booking.getEnd() > now + lookAheadNanos) {
+                return null;
+            }
+            if (gateCalendar.size(booking.getResource()) == 1) {
+                return gates.get(booking.getResource());
+            }
+        }
+        return null;
+    }
+
+    // When the first queued landing could be cleared ahead of its gate, if that is later than now; else -1.
+    // Nothing else happens at that moment, so ATC has to wake itself up for it.
+    public long nextLookAheadTime(long now) {
+        if (!lookAhead || !predictor.isReady() || queue.peekLanding() == null
+                || planesOnGround.get() >= maxPlanesOnGround || findAvailableGate() != null) {
+            return -1;
+        }
+        for (Booking booking : gateCalendar.byFreeTime()) {
+            if (booking.getEnd() == ReservationCalendar.OPEN_END) {
+                return -1;
+            }
+            if (gateCalendar.size(booking.getResource()) == 1) {
+                long at = booking.getEnd() - lookAheadNanos;
+                return at > now ? at : -1;
+            }
+        }
+        return -1;
+    }
+
+    public String getLookAheadSummary() {
+        if (!lookAhead) {
+            return "Look-ahead landings: off";
+        }
+        return String.format("Look-ahead landings: %d of %d cleared before their gate was free, "
+                + "predicted gate hold %.2f s (+/- %.2f s) from %d turnarounds",
+                landingsPreCleared, landingsCleared, predictor.predict() / 1e9, predictor.getDeviation() / 1e9,
+                predictor.getSamples());
+    }
+
+    public void planeLeftGround() {
+        planesOnGround.decrementAndGet();
+    }
+
+    public Gate findAvailableGate() {
+        return gateRegistry.findAvailableGate();
+    }
+
+    public Gate getGateForPlane(int planeId) {
+        return gateRegistry.getGateForPlane(planeId);
+    }
+
+    public GateRegistry getGateRegistry() {
+        return gateRegistry;
+    }
+
+    public String getGateStatusCheck() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("===== Gate Status Check =====\n");
+
+        boolean allEmpty = true;
+        for (Gate gate : gates) {
+            String status = gate.isOccupied() ?
+                "OCCUPIED by " + gate.getOccupiedBy() : "EMPTY";
+            sb.append("Gate-").append(gate.getGateNumber()).append(": ").append(status).append("\n");
+
+            if (gate.isOccupied()) {
+                allEmpty = false;
+            }
+        }
+
+        sb.append("\nSanity Check Result: ");
+        if (allEmpty) {
+            sb.append("All gates are empty - PASSED\n");
+        } else {
+            sb.append("Some gates still occupied - FAILED\n");
+        }
+        sb.append("==============================");
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// A taxiway between the runways and the gate stands, with room for a fixed number of planes at once.
+// Planes get onto it through TaxiwayPool, which does the waiting; this only keeps count.
+public class Taxiway {
+    private final int taxiwayNumber;
+    private final int capacity;
+    private final AtomicInteger occupancy = new AtomicInteger();
+
+    // ===== Usage statistics =====
+    private final LongAdder traversals = new LongAdder();
+    private final LongAdder occupiedNanos = new LongAdder(); // Summed over planes, so up to capacity x elapsed
+    private final AtomicInteger peakOccupancy = new AtomicInteger();
+
+    public Taxiway(int taxiwayNumber, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Taxiway " + taxiwayNumber + " needs room for at least one plane");
+        }
+        this.taxiwayNumber = taxiwayNumber;
+        this.capacity = capacity;
+    }
+
+    // Takes a place on the taxiway if one is left
+    boolean tryEnter() {
+        int current;
+        do {
+            current = occupancy.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!occupancy.compareAndSet(current, current + 1));
+        peakOccupancy.accumulateAndGet(current + 1, Math::max);
+        return true;
+    }
+
+    void leave(long heldNanos) {
+        occupiedNanos.add(heldNanos);
+        traversals.increment();
+        occupancy.decrementAndGet();
+    }
+
+    public int getTaxiwayNumber() {
+        return taxiwayNumber;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getOccupancy() {
+        return occupancy.get();
+    }
+
+    public int getPeakOccupancy() {
+        return peakOccupancy.get();
+    }
+
+    public long getTraversals() {
+        return traversals.sum();
+    }
+
+    public long getOccupiedNanos() {
+        return occupiedNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Taxiway-" + taxiwayNumber;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.utils.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// The taxiways landed planes use to get from the runway to their gate stand.
+// One permit per place on any taxiway: a plane holding a permit is sure to find a taxiway with room.
+// Sized by -Dairport.taxiways (count) and -Dairport.taxiwayCapacity (planes per taxiway).
+public class TaxiwayPool {
+    public static final int DEFAULT_TAXIWAYS = 1;
+    public static final int DEFAULT_CAPACITY = 2;
+
+    private final List<Taxiway> taxiways;
+    private final Semaphore places;
+    private final LatencyHistogram entryWait = new LatencyHistogram(); // Touchdown to taxiway, microseconds
+
+    public TaxiwayPool(int count, int capacity) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one taxiway is required");
+        }
+        this.taxiways = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            taxiways.add(new Taxiway(i, capacity));
+        }
+        this.places = new Semaphore(count * capacity, true); // Fair, planes leave the runway in the order they landed
+    }
+
+    public static TaxiwayPool fromProperties() {
+        return new TaxiwayPool(Integer.getInteger("airport.taxiways", DEFAULT_TAXIWAYS),
+                Integer.getInteger("airport.taxiwayCapacity", DEFAULT_CAPACITY));
+    }
+
+    public List<Taxiway> getTaxiways() {
+        return Collections.unmodifiableList(taxiways);
+    }
+
+    // Waits for room on a taxiway and takes it
+    public Taxiway enter() throws InterruptedException {
+        long start = System.nanoTime();
+        places.acquire();
+        recordEntryWait(System.nanoTime() - start);
+        return claim();
+    }
+
+    // Room on a taxiway, or null if every taxiway is full
+    public Taxiway tryEnter() {
+        return places.tryAcquire() ? claim() : null;
+    }
+
+    public void leave(Taxiway taxiway, long heldNanos) {
+        taxiway.leave(heldNanos);
+        places.release(); // After leave(), so the next permit holder finds the place free
+    }
+
+    // Least occupied taxiway; a permit guarantees one has room, so only races with other claims retry
+    private Taxiway claim() {
+        while (true) {
+            Taxiway best = null;
+            for (Taxiway taxiway : taxiways) {
+                if (taxiway.getOccupancy() < taxiway.getCapacity()
+                        && (best == null || taxiway.getOccupancy() < best.getOccupancy())) {
+                    best = taxiway;
+                }
+            }
+            if (best != null && best.tryEnter()) {
+                return best;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public void recordEntryWait(long waitNanos) {
+        entryWait.record(waitNanos / 1000);
+    }
+
+    public LatencyHistogram getEntryWait() {
+        return entryWait;
+    }
+
+    public String getUtilizationSummary(long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Taxiway Utilization ---\n");
+        for (Taxiway taxiway : taxiways) {
+            double occupancy = elapsedNanos > 0 ? (double) taxiway.getOccupiedNanos() / elapsedNanos : 0;
+            sb.append("Taxiway-").append(taxiway.getTaxiwayNumber())
+              .append(String.format(" (capacity %d): %.2f planes on average, peak %d",
+                      taxiway.getCapacity(), occupancy, taxiway.getPeakOccupancy()))
+              .append(", ").append(taxiway.getTraversals()).append(" traversals\n");
+        }
+        if (entryWait.getCount() > 0) {
+            sb.append(String.format("Wait on the runway for a taxiway: avg %.3f s, P99 %.3f s, max %.3f s%n",
+                    entryWait.getMean() / 1_000_000.0, entryWait.getPercentile(99) / 1_000_000.0,
+                    entryWait.getMax() / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Turnaround work as a dependency graph: each task lists the tasks that must finish before it starts.
+// A task can only depend on tasks added before it, so the graph is acyclic and getTasks() is
+// already in topological order. Everything not ordered by a dependency may run in parallel.
+public class TurnaroundPlan {
+    private static volatile TurnaroundPlan current = standard();
+
+    private final List<GroundTask> tasks;
+    private final Map<GroundTask, Set<GroundTask>> dependencies;
+    private final Map<GroundTask, Set<GroundTask>> dependents;
+
+    public TurnaroundPlan() {
+        this.tasks = new ArrayList<>();
+        this.dependencies = new EnumMap<>(GroundTask.class);
+        this.dependents = new EnumMap<>(GroundTask.class);
+    }
+
+    // disembark -> {clean, supply} -> embark, with refuelling alongside the cabin work
+    public static TurnaroundPlan standard() {
+        return new TurnaroundPlan()
+                .task(GroundTask.DISEMBARK)
+                .task(GroundTask.REFUEL)
+                .task(GroundTask.CLEAN, GroundTask.DISEMBARK)
+                .task(GroundTask.SUPPLY, GroundTask.DISEMBARK)
+                .task(GroundTask.EMBARK, GroundTask.CLEAN, GroundTask.SUPPLY, GroundTask.REFUEL);
+    }
+
+    // The original fixed order: cleaning and supply one after the other
+    public static TurnaroundPlan sequential() {
+        return new TurnaroundPlan()
+                .task(GroundTask.DISEMBARK)
+                .task(GroundTask.REFUEL)
+                .task(GroundTask.CLEAN, GroundTask.DISEMBARK)
+                .task(GroundTask.SUPPLY, GroundTask.CLEAN)
+                .task(GroundTask.EMBARK, GroundTask.SUPPLY, GroundTask.REFUEL);
+    }
+
+    // Plan used by new turnarounds, threaded and simulated
+    public static TurnaroundPlan current() {
+        return current;
+    }
+
+    public static void setCurrent(TurnaroundPlan plan) {
+        current = plan;
+    }
+
+    public TurnaroundPlan task(GroundTask task, GroundTask... after) {
+        if (dependencies.containsKey(task)) {
+            throw new IllegalArgumentException(task + " is already in the plan");
+        }
+        Set<GroundTask> required = EnumSet.noneOf(GroundTask.class);
+        for (GroundTask dependency : after) {
+            if (!dependencies.containsKey(dependency)) {
+                throw new IllegalArgumentException(task + " depends on " + dependency + ", which must be added first");
+            }
+            required.add(dependency);
+            dependents.get(dependency).add(task);
+        }
+        tasks.add(task);
+        dependencies.put(task, required);
+        dependents.put(task, EnumSet.noneOf(GroundTask.class));
+        return this;
+    }
+
+    public List<GroundTask> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    public Set<GroundTask> getDependencies(GroundTask task) {
+        return Collections.unmodifiableSet(dependencies.get(task));
+    }
+
+    public Set<GroundTask> getDependents(GroundTask task) {
+        return Collections.unmodifiableSet(dependents.get(task));
+    }
+
+    // Walks back from the task that finished last, always to the dependency that finished last.
+    // End times are indexed by GroundTask ordinal.
+    public List<GroundTask> criticalPath(long[] endTimes) {
+        GroundTask last = null;
+        for (GroundTask task : tasks) {
+            if (last == null || endTimes[task.ordinal()] > endTimes[last.ordinal()]) {
+                last = task;
+            }
+        }
+        LinkedList<GroundTask> path = new LinkedList<>();
+        while (last != null) {
+            path.addFirst(last);
+            GroundTask previous = null;
+            for (GroundTask dependency : dependencies.get(last)) {
+                if (previous == null || endTimes[dependency.ordinal()] > endTimes[previous.ordinal()]) {
+                    previous = dependency;
+                }
+            }
+            last = previous;
+        }
+        return path;
+    }
+
+    // E.g. "Disembark > Cleaning > Embark"
+    public static String describe(List<GroundTask> path) {
+        StringBuilder sb = new StringBuilder();
+        for (GroundTask task : path) {
+            if (sb.length() > 0) {
+                sb.append(" > ");
+            }
+            sb.append(task.getLabel());
+        }
+        return sb.toString();
+    }
+}
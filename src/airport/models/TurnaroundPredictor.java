@@ -0,0 +1,48 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.models;
+
+/**
+ *
+ * @author junyo
+ */
+
+// How long a landing holds its gate, from getting it (claimed at clearance or handed over) to takeoff
+// clearance, learned from the planes that have already left. Exponentially weighted, so it follows the
+// ground services as their load changes. Not thread-safe; RunwayScheduler uses it under the ATC monitor.
+public class TurnaroundPredictor {
+    public static final int WARM_UP_SAMPLES = 5; // No predictions before this many gates have been released
+    private static final double WEIGHT = 0.1;     // Share of each new sample
+
+    private double mean;      // Nanoseconds
+    private double deviation; // Mean absolute deviation, nanoseconds
+    private long samples;
+
+    public void record(long holdNanos) {
+        if (samples == 0) {
+            mean = holdNanos;
+        } else {
+            deviation += WEIGHT * (Math.abs(holdNanos - mean) - deviation);
+            mean += WEIGHT * (holdNanos - mean);
+        }
+        samples++;
+    }
+
+    public boolean isReady() {
+        return samples >= WARM_UP_SAMPLES;
+    }
+
+    public long predict() {
+        return (long) mean;
+    }
+
+    public long getDeviation() {
+        return (long) deviation;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+}
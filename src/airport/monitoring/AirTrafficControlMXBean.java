@@ -0,0 +1,34 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.monitoring;
+
+/**
+ *
+ * @author junyo
+ */
+
+// airport:type=AirTrafficControl
+public interface AirTrafficControlMXBean {
+    int getLandingQueueDepth();
+
+    int getTakeoffQueueDepth();
+
+    int getEmergencyQueueDepth();
+
+    int getPlanesOnGround();
+
+    int getMaxPlanesOnGround();
+
+    int getFreeGates();
+
+    long getLandingGrants();
+
+    long getTakeoffGrants();
+
+    // Grants since the previous read, per second
+    double getGrantsPerSecond();
+
+    long getGrantLatencyP99Micros();
+}
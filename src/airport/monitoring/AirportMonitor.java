@@ -0,0 +1,308 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.monitoring;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.models.Runway;
+import airport.threads.AirTrafficControl;
+import airport.threads.CrewPool;
+import airport.threads.GroundCrew;
+import airport.threads.RefuellingFleet;
+import airport.threads.RefuellingTruck;
+import airport.utils.Logger;
+import airport.utils.Statistics;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Registers the airport's live metrics as MXBeans on the platform MBean server (jconsole, VisualVM, ...).
+// Every getter reads volatile fields, counters or lock-free structures, never the ATC monitor,
+// so polling them does not slow the simulation down. Ratios are relative to when monitoring started.
+public class AirportMonitor {
+    public static final String DOMAIN = "airport";
+
+    private final MBeanServer server;
+    private final List<ObjectName> registered;
+    private final long startNanos;
+
+    private AirportMonitor() {
+        this.server = ManagementFactory.getPlatformMBeanServer();
+        this.registered = new ArrayList<>();
+        this.startNanos = System.nanoTime();
+    }
+
+    public static AirportMonitor register(AirTrafficControl atc, RefuellingFleet refuellingFleet, CrewPool... crewPools) {
+        AirportMonitor monitor = new AirportMonitor();
+        monitor.add("type=AirTrafficControl", monitor.new AirTrafficControlMetrics(atc));
+        for (Runway runway : atc.getRunways().getRunways()) {
+            monitor.add("type=Runway,name=Runway-" + runway.getRunwayNumber(), monitor.new RunwayMetrics(runway));
+        }
+        for (Gate gate : atc.getGates()) {
+            monitor.add("type=Gate,name=Gate-" + gate.getGateNumber(), monitor.new GateMetrics(gate));
+        }
+        monitor.add("type=RefuellingFleet", monitor.new RefuellingFleetMetrics(refuellingFleet));
+        for (CrewPool pool : crewPools) {
+            monitor.add("type=CrewPool,name=" + pool.getServiceName(), monitor.new CrewPoolMetrics(pool));
+        }
+        return monitor;
+    }
+
+    // A bean left over from an earlier run in the same JVM is replaced
+    private void add(String properties, Object bean) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+            registered.add(name);
+        } catch (JMException e) {
+            Logger.warn("Cannot register " + properties + " for monitoring: " + e.getMessage());
+        }
+    }
+
+    public void unregister() {
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+        registered.clear();
+    }
+
+    private double ratio(long busyNanos, int units) {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed > 0 && units > 0 ? (double) busyNanos / ((double) elapsed * units) : 0;
+    }
+
+    // ===== Bean implementations =====
+    private class AirTrafficControlMetrics implements AirTrafficControlMXBean {
+        private final AirTrafficControl atc;
+        private long lastGrants; // Guarded by this, which only monitoring readers take
+        private long lastReadNanos;
+        private double lastRate;
+
+        AirTrafficControlMetrics(AirTrafficControl atc) {
+            this.atc = atc;
+            this.lastReadNanos = System.nanoTime();
+        }
+
+        @Override
+        public int getLandingQueueDepth() {
+            return atc.getLandingQueueDepth();
+        }
+
+        @Override
+        public int getTakeoffQueueDepth() {
+            return atc.getTakeoffQueueDepth();
+        }
+
+        @Override
+        public int getEmergencyQueueDepth() {
+            return atc.getEmergencyQueueDepth();
+        }
+
+        @Override
+        public int getPlanesOnGround() {
+            return atc.getPlanesOnGround();
+        }
+
+        @Override
+        public int getMaxPlanesOnGround() {
+            return atc.getMaxPlanesOnGround();
+        }
+
+        @Override
+        public int getFreeGates() {
+            int free = 0;
+            for (Gate gate : atc.getGates()) {
+                if (!gate.isOccupied()) {
+                    free++;
+                }
+            }
+            return free;
+        }
+
+        @Override
+        public long getLandingGrants() {
+            return atc.getLandingGrants();
+        }
+
+        @Override
+        public long getTakeoffGrants() {
+            return atc.getTakeoffGrants();
+        }
+
+        // Reads less than a second apart return the previous rate rather than a noisy one
+        @Override
+        public synchronized double getGrantsPerSecond() {
+            long now = System.nanoTime();
+            if (now - lastReadNanos >= 1_000_000_000L) {
+                long grants = atc.getLandingGrants() + atc.getTakeoffGrants();
+                lastRate = (grants - lastGrants) * 1e9 / (now - lastReadNanos);
+                lastGrants = grants;
+                lastReadNanos = now;
+            }
+            return lastRate;
+        }
+
+        @Override
+        public long getGrantLatencyP99Micros() {
+            return Statistics.getGrantLatency().getPercentile(99);
+        }
+    }
+
+    private class RunwayMetrics implements RunwayMXBean {
+        private final Runway runway;
+
+        RunwayMetrics(Runway runway) {
+            this.runway = runway;
+        }
+
+        @Override
+        public String getUse() {
+            return runway.getUse().getLabel();
+        }
+
+        @Override
+        public boolean isOccupied() {
+            return runway.isOccupied();
+        }
+
+        @Override
+        public double getBusyRatio() {
+            return ratio(runway.getBusyNanos(), 1);
+        }
+
+        @Override
+        public long getLandings() {
+            return runway.getLandings();
+        }
+
+        @Override
+        public long getTakeoffs() {
+            return runway.getTakeoffs();
+        }
+
+        @Override
+        public long getQueueWaitP99Micros() {
+            return runway.getQueueWait().getPercentile(99);
+        }
+    }
+
+    private class GateMetrics implements GateMXBean {
+        private final Gate gate;
+
+        GateMetrics(Gate gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public boolean isOccupied() {
+            return gate.isOccupied();
+        }
+
+        @Override
+        public String getOccupiedBy() {
+            return gate.getOccupiedBy();
+        }
+
+        @Override
+        public double getOccupancyRatio() {
+            return ratio(gate.getOccupiedNanos(), 1);
+        }
+    }
+
+    private class RefuellingFleetMetrics implements RefuellingFleetMXBean {
+        private final RefuellingFleet fleet;
+
+        RefuellingFleetMetrics(RefuellingFleet fleet) {
+            this.fleet = fleet;
+        }
+
+        @Override
+        public int getQueueLength() {
+            return fleet.getQueueLength();
+        }
+
+        @Override
+        public int getTruckCount() {
+            return fleet.getTrucks().size();
+        }
+
+        @Override
+        public double getBusyRatio() {
+            long busy = 0;
+            for (RefuellingTruck truck : fleet.getTrucks()) {
+                busy += truck.getBusyNanos();
+            }
+            return ratio(busy, fleet.getTrucks().size());
+        }
+
+        @Override
+        public long getPlanesRefuelled() {
+            long planes = 0;
+            for (RefuellingTruck truck : fleet.getTrucks()) {
+                planes += truck.getPlanesRefuelled();
+            }
+            return planes;
+        }
+    }
+
+    private class CrewPoolMetrics implements CrewPoolMXBean {
+        private final CrewPool pool;
+
+        CrewPoolMetrics(CrewPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public int getQueueLength() {
+            return pool.getQueueLength();
+        }
+
+        @Override
+        public int getCrewCount() {
+            return pool.getCrews().size();
+        }
+
+        @Override
+        public double getBusyRatio() {
+            long busy = 0;
+            for (GroundCrew crew : pool.getCrews()) {
+                busy += crew.getBusyNanos();
+            }
+            return ratio(busy, pool.getCrews().size());
+        }
+
+        @Override
+        public long getPlanesServed() {
+            long planes = 0;
+            for (GroundCrew crew : pool.getCrews()) {
+                planes += crew.getPlanesServed();
+            }
+            return planes;
+        }
+
+        @Override
+        public long getSteals() {
+            long steals = 0;
+            for (GroundCrew crew : pool.getCrews()) {
+                steals += crew.getSteals();
+            }
+            return steals;
+        }
+    }
+}
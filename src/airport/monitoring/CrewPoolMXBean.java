@@ -0,0 +1,24 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.monitoring;
+
+/**
+ *
+ * @author junyo
+ */
+
+// airport:type=CrewPool,name=Cleaning|Supply
+public interface CrewPoolMXBean {
+    int getQueueLength();
+
+    int getCrewCount();
+
+    // Average over all crews since monitoring started
+    double getBusyRatio();
+
+    long getPlanesServed();
+
+    long getSteals();
+}
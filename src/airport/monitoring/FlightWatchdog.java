@@ -0,0 +1,230 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.monitoring;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.threads.AirTrafficControl;
+import airport.utils.Logger;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Watches every plane's current phase and warns as soon as one has been in it for longer than its SLO,
+// instead of the problem only showing up in the end-of-run statistics.
+// Planes publish a phase change with two volatile writes; the scan runs on the watchdog's own thread.
+// A plane that ends while still holding a gate or a ground slot is reported the moment it ends.
+// SLOs are wall-clock milliseconds: airport.slo.landingWait, airport.slo.turnaround,
+// airport.slo.takeoffWait and airport.slo.stall (every other phase).
+public class FlightWatchdog {
+    public static final long DEFAULT_LANDING_WAIT_SLO = 60_000;
+    public static final long DEFAULT_TURNAROUND_SLO = 30_000;
+    public static final long DEFAULT_TAKEOFF_WAIT_SLO = 30_000;
+    public static final long DEFAULT_STALL_SLO = 30_000;
+
+    public enum Phase {
+        SCHEDULED("scheduled"),       // Created, not yet arrived; no SLO
+        LANDING_WAIT("landing wait"), // Landing requested until touchdown, including go-arounds
+        LANDING("landing"),           // Touchdown, coasting and docking
+        TURNAROUND("turnaround"),     // Ground operations at the gate
+        TAKEOFF_WAIT("takeoff wait"), // Takeoff requested until the plane is on the runway
+        TAKEOFF("takeoff");           // On the runway until airborne
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    // One per plane, updated by the plane's own thread
+    public static final class Flight {
+        private final int planeId;
+        private final String planeName; // Kept for alerts, the id may be reused once the plane has gone
+        private volatile Phase phase;
+        private volatile long phaseStart; // nanoTime the current phase began
+        private volatile boolean holdsGroundSlot;
+        private Phase alerted; // Last phase reported, only touched by the watchdog thread
+
+        private Flight(int planeId, String planeName) {
+            this.planeId = planeId;
+            this.planeName = planeName;
+            this.phase = Phase.SCHEDULED;
+            this.phaseStart = System.nanoTime();
+        }
+
+        public String getPlaneName() {
+            return planeName;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+    }
+
+    private static volatile FlightWatchdog active;
+
+    private final AirTrafficControl atc;
+    private final Map<Phase, Long> sloNanos = new EnumMap<>(Phase.class);
+    private final Set<Flight> flights = ConcurrentHashMap.newKeySet();
+    private final Map<Phase, LongAdder> breaches = new EnumMap<>(Phase.class);
+    private final LongAdder leakedGates = new LongAdder();
+    private final LongAdder leakedGroundSlots = new LongAdder();
+    private final long checkIntervalMillis;
+    private final Thread thread;
+    private volatile boolean isRunning;
+
+    private FlightWatchdog(AirTrafficControl atc, long landingWaitMillis, long turnaroundMillis,
+                           long takeoffWaitMillis, long stallMillis) {
+        this.atc = atc;
+        sloNanos.put(Phase.LANDING_WAIT, landingWaitMillis * 1_000_000);
+        sloNanos.put(Phase.LANDING, stallMillis * 1_000_000);
+        sloNanos.put(Phase.TURNAROUND, turnaroundMillis * 1_000_000);
+        sloNanos.put(Phase.TAKEOFF_WAIT, takeoffWaitMillis * 1_000_000);
+        sloNanos.put(Phase.TAKEOFF, stallMillis * 1_000_000);
+        for (Phase phase : Phase.values()) {
+            breaches.put(phase, new LongAdder());
+        }
+        // A breach is noticed within a quarter of the tightest SLO
+        long tightest = Math.min(Math.min(landingWaitMillis, turnaroundMillis), Math.min(takeoffWaitMillis, stallMillis));
+        this.checkIntervalMillis = Math.max(10, Math.min(1000, tightest / 4));
+        this.isRunning = true;
+        this.thread = new Thread(this::run, "FlightWatchdog");
+        this.thread.setDaemon(true);
+    }
+
+    // SLOs from the airport.slo.* system properties, falling back to the defaults
+    public static FlightWatchdog start(AirTrafficControl atc) {
+        return start(atc, Long.getLong("airport.slo.landingWait", DEFAULT_LANDING_WAIT_SLO),
+                Long.getLong("airport.slo.turnaround", DEFAULT_TURNAROUND_SLO),
+                Long.getLong("airport.slo.takeoffWait", DEFAULT_TAKEOFF_WAIT_SLO),
+                Long.getLong("airport.slo.stall", DEFAULT_STALL_SLO));
+    }
+
+    public static FlightWatchdog start(AirTrafficControl atc, long landingWaitMillis, long turnaroundMillis,
+                                       long takeoffWaitMillis, long stallMillis) {
+        FlightWatchdog watchdog = new FlightWatchdog(atc, landingWaitMillis, turnaroundMillis,
+                takeoffWaitMillis, stallMillis);
+        active = watchdog;
+        watchdog.thread.start();
+        return watchdog;
+    }
+
+    // ===== Called by planes; all of these do nothing while no watchdog is running =====
+    public static Flight track(int planeId, String planeName) {
+        FlightWatchdog watchdog = active;
+        if (watchdog == null) {
+            return null;
+        }
+        Flight flight = new Flight(planeId, planeName);
+        watchdog.flights.add(flight);
+        return flight;
+    }
+
+    // Re-entering the current phase (a go-around) keeps its original start time
+    public static void enter(Flight flight, Phase phase) {
+        if (flight != null && flight.phase != phase) {
+            flight.phaseStart = System.nanoTime();
+            flight.phase = phase;
+        }
+    }
+
+    public static void groundSlot(Flight flight, boolean held) {
+        if (flight != null) {
+            flight.holdsGroundSlot = held;
+        }
+    }
+
+    // The plane is done, whatever the reason; anything it still holds has leaked
+    public static void finished(Flight flight) {
+        FlightWatchdog watchdog = active;
+        if (flight == null || watchdog == null) {
+            return;
+        }
+        watchdog.flights.remove(flight);
+        Gate gate = watchdog.atc.getGateForPlane(flight.planeId);
+        if (gate != null) {
+            watchdog.leakedGates.increment();
+            Logger.error("LEAK: " + flight.planeName + " ended in phase " + flight.phase.label
+                    + " still holding Gate-" + gate.getGateNumber());
+        }
+        if (flight.holdsGroundSlot) {
+            watchdog.leakedGroundSlots.increment();
+            Logger.error("LEAK: " + flight.planeName + " ended in phase " + flight.phase.label
+                    + " still holding a ground slot");
+        }
+    }
+
+    // ===== Watchdog thread =====
+    private void run() {
+        while (isRunning) {
+            try {
+                Thread.sleep(checkIntervalMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            check(System.nanoTime());
+        }
+    }
+
+    private void check(long now) {
+        for (Flight flight : flights) {
+            Phase phase = flight.phase;
+            long start = flight.phaseStart;
+            Long slo = sloNanos.get(phase);
+            if (slo == null || flight.alerted == phase || now - start <= slo) {
+                continue;
+            }
+            flight.alerted = phase; // Once per phase, not on every scan
+            breaches.get(phase).increment();
+            Logger.warn(String.format("SLO breach: %s in %s for %.1f s (SLO %.1f s)",
+                    flight.planeName, phase.label, (now - start) / 1e9, slo / 1e9));
+        }
+    }
+
+    public void close() {
+        isRunning = false;
+        thread.interrupt();
+        if (active == this) {
+            active = null;
+        }
+    }
+
+    // ===== Results =====
+    public long getBreaches(Phase phase) {
+        return breaches.get(phase).sum();
+    }
+
+    public long getLeakedGates() {
+        return leakedGates.sum();
+    }
+
+    public long getLeakedGroundSlots() {
+        return leakedGroundSlots.sum();
+    }
+
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("===== Flight Watchdog =====\n");
+        for (Map.Entry<Phase, Long> entry : sloNanos.entrySet()) {
+            sb.append(String.format("%s: SLO %.1f s, %d breaches%n", entry.getKey().label,
+                    entry.getValue() / 1e9, breaches.get(entry.getKey()).sum()));
+        }
+        sb.append("Leaked gates: ").append(leakedGates.sum()).append("\n");
+        sb.append("Leaked ground slots: ").append(leakedGroundSlots.sum()).append("\n");
+        sb.append("==============================");
+        return sb.toString();
+    }
+}
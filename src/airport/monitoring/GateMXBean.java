@@ -0,0 +1,20 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.monitoring;
+
+/**
+ *
+ * @author junyo
+ */
+
+// airport:type=Gate,name=Gate-N
+public interface GateMXBean {
+    boolean isOccupied();
+
+    String getOccupiedBy();
+
+    // Share of the time since monitoring started the gate was occupied
+    double getOccupancyRatio();
+}
@@ -0,0 +1,22 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.monitoring;
+
+/**
+ *
+ * @author junyo
+ */
+
+// airport:type=RefuellingFleet
+public interface RefuellingFleetMXBean {
+    int getQueueLength();
+
+    int getTruckCount();
+
+    // Average over all trucks since monitoring started
+    double getBusyRatio();
+
+    long getPlanesRefuelled();
+}
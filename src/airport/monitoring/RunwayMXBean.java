@@ -0,0 +1,26 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.monitoring;
+
+/**
+ *
+ * @author junyo
+ */
+
+// airport:type=Runway,name=Runway-N
+public interface RunwayMXBean {
+    String getUse();
+
+    boolean isOccupied();
+
+    // Share of the time since monitoring started the runway was in use
+    double getBusyRatio();
+
+    long getLandings();
+
+    long getTakeoffs();
+
+    long getQueueWaitP99Micros();
+}
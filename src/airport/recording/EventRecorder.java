@@ -0,0 +1,359 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.recording;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.PlaneIds;
+import airport.models.PlaneTable;
+import airport.utils.Logger;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Always-on binary flight event recorder. Every event is a fixed 20-byte record
+// (nanoTime, plane id, resource id, event type) written straight into a memory-mapped segment file.
+//
+// Each thread claims a chunk of record slots in the current segment with one atomic add and then
+// fills it with plain absolute puts, so recording an event costs a thread-local lookup and four
+// stores. Chunks start small and double for busy threads (ATC, crews, trucks), so short-lived
+// plane threads waste little. Slots a thread never fills stay zero and readers skip them.
+// When a segment is full the next one is mapped; only the newest maxSegments files are kept.
+//
+// Directory layout: segment-00000.bin, segment-00001.bin, ... each with a segment-NNNNN.names file
+// (plane id, tab, name) that is rotated with it. A new segment's names file starts with every plane
+// still flying, so the retained files name every plane in the retained segments.
+// Segments start with one record-sized header: magic, version, record size, segment index.
+// RecordingDump reads them back.
+public class EventRecorder {
+    public static final int RECORD_SIZE = 20;
+    public static final int MAGIC = 0x41544352; // "ATCR"
+    public static final int VERSION = 1;
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    public static final int DEFAULT_MAX_SEGMENTS = 32;
+    public static final String PLANE_NAMES_SUFFIX = ".names";
+
+    private static final int FIRST_CHUNK_RECORDS = 4;
+    private static final int MAX_CHUNK_RECORDS = 1024;
+    // Target for writes that arrive after close() or after a segment could not be created
+    private static final Segment DISCARD = new Segment(-1, null, null,
+            ByteBuffer.allocate(MAX_CHUNK_RECORDS * RECORD_SIZE), null);
+
+    private static volatile EventRecorder active;
+    private static final ThreadLocal<Chunk> chunks = new ThreadLocal<>();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ArrayDeque<Segment> segments; // Guarded by this, oldest first
+    private volatile Segment current;
+    private volatile boolean stopped;
+    private final PlaneTable planeIds; // Plane id -> id in the recording, 0 once the plane has gone
+    // Recording ids wrap after 2^31 planes, long after the segments naming the old holder are gone
+    private int nextPlaneId; // Guarded by names
+    private final Object names = new Object(); // Guards the current segment's names file
+
+    // One mapped segment file; record slots are handed out by bumping claimed
+    private static class Segment {
+        final int index;
+        final Path path;
+        final FileChannel channel;
+        final ByteBuffer buffer;
+        final AtomicInteger claimed;
+        final BufferedWriter names; // Null for DISCARD
+
+        Segment(int index, Path path, FileChannel channel, ByteBuffer buffer, BufferedWriter names) {
+            this.index = index;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.names = names;
+            this.claimed = new AtomicInteger(RECORD_SIZE); // Slot 0 is the header
+        }
+    }
+
+    // A thread's current run of slots: [position, end) in one segment
+    private static class Chunk {
+        final EventRecorder owner;
+        Segment segment;
+        int position;
+        int end;
+        int nextRecords = FIRST_CHUNK_RECORDS;
+
+        Chunk(EventRecorder owner) {
+            this.owner = owner;
+        }
+    }
+
+    private EventRecorder(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < MAX_CHUNK_RECORDS * RECORD_SIZE * 2 || maxSegments < 1) {
+            throw new IllegalArgumentException("Segment size " + segmentSize + " or segment count " + maxSegments + " too small");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        this.maxSegments = maxSegments;
+        this.segments = new ArrayDeque<>();
+        this.planeIds = new PlaneTable();
+        this.nextPlaneId = 1;
+
+        Files.createDirectories(directory);
+        // A new recording replaces the previous one in the same directory
+        try (DirectoryStream<Path> old = Files.newDirectoryStream(directory, "segment-*")) {
+            for (Path path : old) {
+                Files.delete(path);
+            }
+        }
+        this.current = openSegment(0);
+    }
+
+    // ===== Lifecycle =====
+    public static EventRecorder start(Path directory) throws IOException {
+        return start(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+    }
+
+    public static synchronized EventRecorder start(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (active != null) {
+            active.close();
+        }
+        EventRecorder recorder = new EventRecorder(directory, segmentSize, maxSegments);
+        active = recorder;
+        return recorder;
+    }
+
+    public static EventRecorder getActive() {
+        return active;
+    }
+
+    public static boolean isRecording() {
+        return active != null;
+    }
+
+    // Stops recording, flushes the mapped segments and trims the last one to the slots handed out
+    public void close() {
+        synchronized (EventRecorder.class) {
+            if (active == this) {
+                active = null;
+            }
+        }
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            // Writers may still be between their stopped check and their claim. Moving claimed to the
+            // segment end makes every later claim fail, so all slots handed out lie below the old value.
+            Segment last = current;
+            int claimedEnd = last != DISCARD
+                    ? Math.min(last.claimed.getAndUpdate(claimed -> Math.max(claimed, segmentSize)), segmentSize) : 0;
+            for (Segment segment : segments) {
+                try {
+                    ((MappedByteBuffer) segment.buffer).force();
+                    if (segment == last) {
+                        segment.channel.truncate(claimedEnd);
+                    }
+                    segment.channel.close();
+                } catch (IOException e) {
+                    Logger.warn("Cannot finish " + segment.path + ": " + e.getMessage());
+                }
+            }
+            synchronized (names) {
+                for (Segment segment : segments) {
+                    closeNames(segment);
+                }
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // ===== Plane ids =====
+    // Called once per plane, so the names file gets the name before the first record
+    public static void registerPlane(int planeId) {
+        EventRecorder recorder = active;
+        if (recorder != null) {
+            recorder.idFor(planeId);
+        }
+    }
+
+    // Forget a departed plane; its plane id may be handed to another plane right after
+    public static void unregisterPlane(int planeId) {
+        EventRecorder recorder = active;
+        if (recorder != null) {
+            recorder.planeIds.set(planeId, 0);
+        }
+    }
+
+    private int idFor(int planeId) {
+        int id = planeIds.get(planeId);
+        if (id != 0) {
+            return id;
+        }
+        synchronized (names) {
+            id = planeIds.get(planeId);
+            if (id == 0) {
+                id = nextPlaneId;
+                nextPlaneId = id == Integer.MAX_VALUE ? 1 : id + 1;
+                writeName(current, id, PlaneIds.name(planeId));
+                planeIds.set(planeId, id);
+            }
+        }
+        return id;
+    }
+
+    private void writeName(Segment segment, int id, String name) {
+        if (segment.names == null || stopped) {
+            return;
+        }
+        try {
+            segment.names.write(id + "\t" + name + "\n");
+        } catch (IOException e) {
+            Logger.warn("Cannot write plane name " + name + ": " + e.getMessage());
+        }
+    }
+
+    // Planes registered while the previous segment was current; a plane that departs meanwhile is skipped
+    private void copyLiveNames(Segment segment) {
+        int highWaterMark = PlaneIds.getHighWaterMark();
+        for (int planeId = 1; planeId < highWaterMark; planeId++) {
+            int id = planeIds.get(planeId);
+            if (id != 0) {
+                String name = PlaneIds.name(planeId);
+                if (planeIds.get(planeId) == id) {
+                    writeName(segment, id, name);
+                }
+            }
+        }
+    }
+
+    private void closeNames(Segment segment) {
+        try {
+            segment.names.close();
+        } catch (IOException e) {
+            Logger.warn("Cannot write plane names of " + segment.path + ": " + e.getMessage());
+        }
+    }
+
+    // ===== Recording =====
+    // Takes the plane's PlaneIds id, the record carries the plane's id in this recording
+    public static void record(EventType type, int planeId, int resourceId) {
+        EventRecorder recorder = active;
+        if (recorder != null) {
+            recorder.write(type.getCode(), recorder.idFor(planeId), resourceId);
+        }
+    }
+
+    private void write(int code, int planeId, int resourceId) {
+        Chunk chunk = chunks.get();
+        if (chunk == null || chunk.owner != this) {
+            chunk = new Chunk(this);
+            chunks.set(chunk);
+        }
+        if (chunk.position == chunk.end) {
+            refill(chunk);
+        }
+        ByteBuffer buffer = chunk.segment.buffer;
+        int position = chunk.position;
+        buffer.putLong(position, System.nanoTime());
+        buffer.putInt(position + 8, planeId);
+        buffer.putInt(position + 12, resourceId);
+        buffer.putInt(position + 16, code); // Last, a zero code means the slot was never written
+        chunk.position = position + RECORD_SIZE;
+    }
+
+    private void refill(Chunk chunk) {
+        int bytes = chunk.nextRecords * RECORD_SIZE;
+        chunk.nextRecords = Math.min(chunk.nextRecords * 2, MAX_CHUNK_RECORDS);
+        while (true) {
+            Segment segment = current;
+            if (stopped || segment == DISCARD) {
+                chunk.segment = DISCARD;
+                chunk.position = 0;
+                chunk.end = bytes;
+                return;
+            }
+            int start = segment.claimed.getAndAdd(bytes);
+            if (start <= segmentSize - bytes) { // Never true once close() has moved claimed to the end
+                chunk.segment = segment;
+                chunk.position = start;
+                chunk.end = start + bytes;
+                return;
+            }
+            rotate(segment);
+        }
+    }
+
+    private synchronized void rotate(Segment full) {
+        if (current != full || stopped) {
+            return; // Another thread got here first
+        }
+        full.claimed.set(Integer.MAX_VALUE / 2); // Nothing more is handed out from it, and no overflow
+        Segment next;
+        try {
+            ((MappedByteBuffer) full.buffer).force();
+            next = openSegment(full.index + 1);
+        } catch (IOException e) {
+            Logger.error("Event recording stopped: " + e.getMessage());
+            current = DISCARD;
+            return;
+        }
+        synchronized (names) {
+            current = next;
+            copyLiveNames(next);
+            try {
+                full.names.flush();
+            } catch (IOException e) {
+                Logger.warn("Cannot write plane names of " + full.path + ": " + e.getMessage());
+            }
+        }
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.removeFirst();
+            try {
+                oldest.channel.close();
+                synchronized (names) {
+                    closeNames(oldest);
+                }
+                Files.deleteIfExists(oldest.path);
+                Files.deleteIfExists(namesPath(oldest.index));
+            } catch (IOException e) {
+                Logger.warn("Cannot delete old segment " + oldest.path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Path namesPath(int index) {
+        return directory.resolve(String.format("segment-%05d", index) + PLANE_NAMES_SUFFIX);
+    }
+
+    private Segment openSegment(int index) throws IOException {
+        Path path = directory.resolve(String.format("segment-%05d.bin", index));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, index);
+        BufferedWriter names = Files.newBufferedWriter(namesPath(index), StandardCharsets.UTF_8);
+        Segment segment = new Segment(index, path, channel, buffer, names);
+        segments.addLast(segment);
+        return segment;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.recording;
+
+/**
+ *
+ * @author junyo
+ */
+
+// What a record describes; the code is what is stored, 0 marks an unused slot.
+// The resource id is the runway, gate, truck or crew number named in the comment.
+public enum EventType {
+    LANDING_REQUESTED,  // -
+    LANDING_DENIED,     // -
+    LANDING_GRANTED,    // Runway
+    GATE_ASSIGNED,      // Gate
+    TOUCHDOWN,          // Runway
+    DOCKED,             // Gate
+    TASK_STARTED,       // GroundTask ordinal
+    TASK_FINISHED,      // GroundTask ordinal
+    REFUEL_STARTED,     // Truck
+    REFUEL_FINISHED,    // Truck
+    CLEANING_STARTED,   // Crew
+    CLEANING_FINISHED,  // Crew
+    SUPPLY_STARTED,     // Crew
+    SUPPLY_FINISHED,    // Crew
+    TAKEOFF_REQUESTED,  // Gate
+    TAKEOFF_DENIED,     // -
+    TAKEOFF_GRANTED,    // Runway
+    TAKEOFF_STARTED,    // Runway
+    DEPARTED;           // Runway
+
+    private static final EventType[] BY_CODE = values();
+
+    public int getCode() {
+        return ordinal() + 1;
+    }
+
+    // Null for 0 (an unused slot) or a code from a newer version
+    public static EventType fromCode(int code) {
+        return code >= 1 && code <= BY_CODE.length ? BY_CODE[code - 1] : null;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.recording;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads a recording written by EventRecorder.
+// RecordingDump <directory> [summary|csv]
+//   summary  event counts, time span and rate (default)
+//   csv      one line per record: nanos,plane,event,resource, in file order
+//            (per-thread chunks, so sort by the first column for a timeline)
+public class RecordingDump {
+
+    // Receives every record of a recording
+    public interface RecordVisitor {
+        void visit(long nanos, int planeId, EventType type, int resourceId) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: RecordingDump <directory> [summary|csv]");
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        String mode = args.length > 1 ? args[1] : "summary";
+        if (mode.equalsIgnoreCase("csv")) {
+            Map<Integer, String> names = readPlaneNames(directory);
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            out.write("nanos,plane,event,resource\n");
+            read(directory, (nanos, planeId, type, resourceId) -> {
+                String plane = names.getOrDefault(planeId, String.valueOf(planeId));
+                out.write(nanos + "," + plane + "," + type + "," + resourceId + "\n");
+            });
+            out.flush();
+        } else {
+            printSummary(directory);
+        }
+    }
+
+    private static void printSummary(Path directory) throws IOException {
+        Map<EventType, long[]> counts = new EnumMap<>(EventType.class);
+        long[] span = { Long.MAX_VALUE, Long.MIN_VALUE, 0 }; // First, last, total
+        long started = System.nanoTime();
+        read(directory, (nanos, planeId, type, resourceId) -> {
+            counts.computeIfAbsent(type, t -> new long[1])[0]++;
+            span[0] = Math.min(span[0], nanos);
+            span[1] = Math.max(span[1], nanos);
+            span[2]++;
+        });
+        double readSeconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.println("===== Recording " + directory + " =====");
+        System.out.printf("Records: %,d (read in %.2f s)%n", span[2], readSeconds);
+        if (span[2] > 0) {
+            double seconds = (span[1] - span[0]) / 1e9;
+            System.out.printf("Time span: %.3f s, %,.0f events/s%n", seconds, seconds > 0 ? span[2] / seconds : 0);
+        }
+        System.out.println("Planes: " + readPlaneNames(directory).size());
+        for (Map.Entry<EventType, long[]> entry : counts.entrySet()) {
+            System.out.printf("%-18s %,12d%n", entry.getKey(), entry.getValue()[0]);
+        }
+    }
+
+    // Visits every written record of every segment, oldest segment first
+    public static void read(Path directory, RecordVisitor visitor) throws IOException {
+        List<Path> segmentFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.bin")) {
+            for (Path path : files) {
+                segmentFiles.add(path);
+            }
+        }
+        Collections.sort(segmentFiles); // Zero-padded index, so name order is segment order
+
+        for (Path path : segmentFiles) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (buffer.limit() < EventRecorder.RECORD_SIZE || buffer.getInt(0) != EventRecorder.MAGIC) {
+                    throw new IOException(path + " is not an event recording segment");
+                }
+                int recordSize = buffer.getInt(8);
+                for (int position = recordSize; position + recordSize <= buffer.limit(); position += recordSize) {
+                    EventType type = EventType.fromCode(buffer.getInt(position + 16));
+                    if (type != null) {
+                        visitor.visit(buffer.getLong(position), buffer.getInt(position + 8),
+                                type, buffer.getInt(position + 12));
+                    }
+                }
+            }
+        }
+    }
+
+    // Names of every plane in the retained segments; recording ids may repeat across files, the newest wins
+    public static Map<Integer, String> readPlaneNames(Path directory) throws IOException {
+        Map<Integer, String> names = new HashMap<>();
+        List<Path> nameFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*" + EventRecorder.PLANE_NAMES_SUFFIX)) {
+            for (Path path : files) {
+                nameFiles.add(path);
+            }
+        }
+        Collections.sort(nameFiles);
+        for (Path file : nameFiles) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    names.put(Integer.parseInt(line.substring(0, tab)), line.substring(tab + 1));
+                }
+            }
+        }
+        return names;
+    }
+}
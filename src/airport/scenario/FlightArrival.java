@@ -0,0 +1,35 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.scenario;
+
+/**
+ *
+ * @author junyo
+ */
+
+// One line of a scenario's arrival schedule
+public class FlightArrival {
+    private final long arrivalMillis; // Since the start of the scenario
+    private final String flightName;
+    private final int emergencyLevel;
+
+    public FlightArrival(long arrivalMillis, String flightName, int emergencyLevel) {
+        this.arrivalMillis = arrivalMillis;
+        this.flightName = flightName;
+        this.emergencyLevel = emergencyLevel;
+    }
+
+    public long getArrivalMillis() {
+        return arrivalMillis;
+    }
+
+    public String getFlightName() {
+        return flightName;
+    }
+
+    public int getEmergencyLevel() {
+        return emergencyLevel;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.scenario;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.RunwayScheduler;
+import airport.threads.Plane;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// A traffic day: airport configuration followed by the arrival schedule.
+//
+//   # comment
+//   gates = 3
+//   runways = LT                  (count or one letter per runway, see RunwayPool.fromSpec)
+//   refuelling_trucks = 1
+//   cleaning_crews = 3
+//   supply_crews = 3
+//   max_planes_on_ground = 3
+//   [arrivals]
+//   00:00:01,Plane-1              (time as HH:MM:SS[.mmm] or milliseconds, flight, optional emergency level)
+//   2000,Plane-2,3
+//
+// Only the configuration is read up front. Arrivals are read one line at a time by
+// nextArrival(), so the schedule can be far larger than memory; it must be in time order.
+// A continuous scenario has no arrival lines at all, its flights are generated as they are asked for.
+public class Scenario implements Closeable {
+    private static final String ARRIVALS_SECTION = "[arrivals]";
+
+    private final String source;
+    private final BufferedReader reader;
+    private int gates = 3;
+    private String runways = "1";
+    private int refuellingTrucks = 1;
+    private int cleaningCrews = -1; // Defaults to one per gate
+    private int supplyCrews = -1;
+    private int maxPlanesOnGround = RunwayScheduler.MAX_PLANES_ON_GROUND;
+    private int lineNumber;
+    private long lastArrivalMillis;
+    private long arrivalsRead;
+    private long generatedInterval; // Continuous scenarios only, 0 = read arrivals from the source
+    private long generatedUntil;
+
+    private Scenario(String source, BufferedReader reader) throws IOException {
+        this.source = source;
+        this.reader = reader;
+        readConfiguration();
+    }
+
+    public static Scenario open(Path file) throws IOException {
+        return new Scenario(file.toString(), Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    // The built-in scenario: planes arriving one interval apart, plane 5 as the emergency
+    public static Scenario standard(int planes, int gates, long arrivalIntervalMillis) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("gates = ").append(gates).append('\n');
+        sb.append(ARRIVALS_SECTION).append('\n');
+        for (int i = 1; i <= planes; i++) {
+            sb.append(i * arrivalIntervalMillis).append(",Plane-").append(i)
+              .append(',').append(Plane.emergencyLevelFor(i)).append('\n');
+        }
+        try {
+            return new Scenario("standard", new BufferedReader(new StringReader(sb.toString())));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen for an in-memory reader
+        }
+    }
+
+    // Open-ended traffic: a plane every interval until the duration is over (0 = never), plane 5 as the emergency
+    public static Scenario continuous(int gates, long arrivalIntervalMillis, long durationMillis) {
+        if (arrivalIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Arrival interval must be positive: " + arrivalIntervalMillis);
+        }
+        String configuration = "gates = " + gates + "\n" + ARRIVALS_SECTION + "\n";
+        Scenario scenario;
+        try {
+            scenario = new Scenario("continuous", new BufferedReader(new StringReader(configuration)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Cannot happen for an in-memory reader
+        }
+        scenario.generatedInterval = arrivalIntervalMillis;
+        scenario.generatedUntil = durationMillis > 0 ? durationMillis : Long.MAX_VALUE;
+        return scenario;
+    }
+
+    private void readConfiguration() throws IOException {
+        String line;
+        while ((line = nextLine()) != null) {
+            if (line.equalsIgnoreCase(ARRIVALS_SECTION)) {
+                return;
+            }
+            int equals = line.indexOf('=');
+            if (equals < 0) {
+                throw error("expected key = value or " + ARRIVALS_SECTION);
+            }
+            String key = line.substring(0, equals).trim().toLowerCase();
+            String value = line.substring(equals + 1).trim();
+            try {
+                switch (key) {
+                    case "gates": gates = Integer.parseInt(value); break;
+                    case "runways": runways = value; break;
+                    case "refuelling_trucks": refuellingTrucks = Integer.parseInt(value); break;
+                    case "cleaning_crews": cleaningCrews = Integer.parseInt(value); break;
+                    case "supply_crews": supplyCrews = Integer.parseInt(value); break;
+                    case "max_planes_on_ground": maxPlanesOnGround = Integer.parseInt(value); break;
+                    default: throw error("unknown setting '" + key + "'");
+                }
+            } catch (NumberFormatException e) {
+                throw error("'" + value + "' is not a number");
+            }
+        }
+        throw error("missing " + ARRIVALS_SECTION + " section");
+    }
+
+    // Next flight in the schedule, or null at the end
+    public FlightArrival nextArrival() throws IOException {
+        if (generatedInterval > 0) {
+            return nextGeneratedArrival();
+        }
+        String line = nextLine();
+        if (line == null) {
+            return null;
+        }
+        String[] fields = line.split(",");
+        if (fields.length < 2 || fields.length > 3) {
+            throw error("expected time,flight[,emergency level]");
+        }
+        long arrivalMillis = parseTime(fields[0].trim());
+        String flightName = fields[1].trim();
+        int emergencyLevel = 1;
+        if (fields.length == 3) {
+            try {
+                emergencyLevel = Integer.parseInt(fields[2].trim());
+            } catch (NumberFormatException e) {
+                emergencyLevel = 0;
+            }
+            if (emergencyLevel < 1 || emergencyLevel > 3) {
+                throw error("emergency level must be between 1 and 3");
+            }
+        }
+        if (arrivalMillis < lastArrivalMillis) {
+            throw error("arrivals must be in time order");
+        }
+        lastArrivalMillis = arrivalMillis;
+        arrivalsRead++;
+        return new FlightArrival(arrivalMillis, flightName, emergencyLevel);
+    }
+
+    private FlightArrival nextGeneratedArrival() {
+        long arrivalMillis = (arrivalsRead + 1) * generatedInterval;
+        if (arrivalMillis > generatedUntil) {
+            return null;
+        }
+        arrivalsRead++;
+        int emergencyLevel = Plane.emergencyLevelFor((int) Math.min(arrivalsRead, Integer.MAX_VALUE));
+        return new FlightArrival(arrivalMillis, "Plane-" + arrivalsRead, emergencyLevel);
+    }
+
+    // HH:MM:SS[.mmm] or plain milliseconds
+    private long parseTime(String time) throws IOException {
+        try {
+            if (!time.contains(":")) {
+                return Long.parseLong(time);
+            }
+            String[] parts = time.split(":");
+            if (parts.length != 3) {
+                throw error("time must be HH:MM:SS or milliseconds");
+            }
+            long seconds = Long.parseLong(parts[0]) * 3600 + Long.parseLong(parts[1]) * 60;
+            return seconds * 1000 + Math.round(Double.parseDouble(parts[2]) * 1000);
+        } catch (NumberFormatException e) {
+            throw error("bad time '" + time + "'");
+        }
+    }
+
+    // Next line without comments, skipping blank ones
+    private String nextLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (!line.isEmpty()) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private IOException error(String message) {
+        return new IOException(source + ", line " + lineNumber + ": " + message);
+    }
+
+    public int getGates() {
+        return gates;
+    }
+
+    public String getRunways() {
+        return runways;
+    }
+
+    public int getRefuellingTrucks() {
+        return refuellingTrucks;
+    }
+
+    public int getCleaningCrews() {
+        return cleaningCrews > 0 ? cleaningCrews : gates;
+    }
+
+    public int getSupplyCrews() {
+        return supplyCrews > 0 ? supplyCrews : gates;
+    }
+
+    public int getMaxPlanesOnGround() {
+        return maxPlanesOnGround;
+    }
+
+    public long getArrivalsRead() {
+        return arrivalsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,544 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.sim;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.models.Gate;
+import airport.models.GroundTask;
+import airport.models.PlaneIds;
+import airport.models.Runway;
+import airport.models.RunwayPool;
+import airport.models.RunwayQueue;
+import airport.models.RunwayRequest;
+import airport.models.RunwayScheduler;
+import airport.models.Taxiway;
+import airport.models.TaxiwayPool;
+import airport.models.TurnaroundPlan;
+import airport.scenario.FlightArrival;
+import airport.scenario.Scenario;
+import airport.threads.CleaningCrew;
+import airport.threads.DisembarkPassenger;
+import airport.threads.EmbarkPassenger;
+import airport.threads.Plane;
+import airport.threads.RefuellingTruck;
+import airport.threads.SupplyCrew;
+import airport.utils.LatencyHistogram;
+import airport.utils.Statistics;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+// Discrete-event version of the airport. Runs the same flight sequence as the threaded
+// Plane (land, coast, dock, the TurnaroundPlan's ground tasks, take off) with the
+// same durations, but on a virtual clock, and asks the same RunwayScheduler who may use
+// the runway. Results go to the same Statistics, so getSummary() is comparable.
+public class AirportSimulation {
+    private final EventScheduler events;
+    private final RunwayScheduler scheduler;
+    private final RunwayQueue runwayQueue;
+    private final RunwayPool runways;
+    private final Set<Runway> busyRunways; // Runway occupancy is virtual, the runways' locks are not used
+    private TaxiwayPool taxiways;
+    private final Queue<Flight> waitingForTaxiway; // Landed and still on their runway, in landing order
+    private boolean runwayHeldUntilDocked; // The old model: no taxiways, the runway is held until docked
+    private boolean lookAhead; // As asked for; never applied while the runway is held until docked
+    private final LatencyHistogram landingWait = new LatencyHistogram(1); // This run only, Statistics is shared
+    private long lookAheadWakeUp = -1; // Virtual time of the last dispatch scheduled for a look-ahead landing
+    private Flight[] flightsById; // Indexed by plane id, grown to the highest id seen
+    private final Random random;
+    private final boolean verbose;
+    private final ServicePool refuellingTrucks;
+    private ServicePool cleaningCrews;
+    private ServicePool supplyCrews;
+
+    // Per-flight state, dropped once the plane has departed
+    private static class Flight {
+        final String name;
+        final int emergencyLevel;
+        int id; // PlaneIds handle while the flight is in the simulation
+        Gate gate;
+        Runway runway;
+        long runwayAcquiredTime;
+        Taxiway taxiway;
+        long taxiwayEnteredTime;
+        long landedTime;
+        boolean holdingAtStand; // Cleared ahead of its gate and still waiting for it
+        long standHoldStart;
+        long landingRequestTime;
+        long takeoffRequestTime;
+        TurnaroundPlan plan;
+        long turnaroundStart;
+        int tasksLeft;
+        int[] pendingDependencies; // Indexed by GroundTask ordinal
+        long[] taskEnd;
+
+        Flight(int number) {
+            this("Plane-" + number, Plane.emergencyLevelFor(number));
+        }
+
+        Flight(String name, int emergencyLevel) {
+            this.name = name;
+            this.emergencyLevel = emergencyLevel;
+        }
+    }
+
+    public AirportSimulation(int numGates, RunwayPool runways, int refuellingTrucks, long seed, boolean verbose) {
+        this(numGates, runways, refuellingTrucks, RunwayScheduler.MAX_PLANES_ON_GROUND, seed, verbose);
+    }
+
+    public AirportSimulation(int numGates, RunwayPool runways, int refuellingTrucks, int maxPlanesOnGround,
+                             long seed, boolean verbose) {
+        List<Gate> gates = new ArrayList<>();
+        for (int i = 1; i <= numGates; i++) {
+            gates.add(new Gate(i));
+        }
+        this.events = new EventScheduler();
+        this.scheduler = new RunwayScheduler(gates, maxPlanesOnGround);
+        this.runwayQueue = scheduler.getQueue();
+        this.runways = runways;
+        this.busyRunways = new HashSet<>();
+        this.taxiways = TaxiwayPool.fromProperties();
+        this.waitingForTaxiway = new ArrayDeque<>();
+        this.flightsById = new Flight[64];
+        applyLookAhead();
+        this.random = new Random(seed);
+        this.verbose = verbose;
+        this.refuellingTrucks = new ServicePool("RefuellingTruck", Statistics.Service.REFUELLING,
+                RefuellingTruck.REFUELLING_TIME, refuellingTrucks);
+        // One crew of each kind per gate unless set otherwise
+        createGroundCrews(numGates, numGates);
+    }
+
+    // Cleaning and supply headcount, shared by all gates like the threaded CrewPool
+    public void setGroundCrews(int cleaning, int supply) {
+        createGroundCrews(cleaning, supply);
+    }
+
+    private void createGroundCrews(int cleaning, int supply) {
+        this.cleaningCrews = new ServicePool("CleaningCrew", Statistics.Service.CLEANING,
+                CleaningCrew.CLEANING_TIME, cleaning);
+        this.supplyCrews = new ServicePool("SupplyCrew", Statistics.Service.SUPPLY,
+                SupplyCrew.SUPPLY_TIME, supply);
+    }
+
+    public void setTaxiways(TaxiwayPool taxiways) {
+        this.taxiways = taxiways;
+    }
+
+    public TaxiwayPool getTaxiways() {
+        return taxiways;
+    }
+
+    public void setLookAhead(boolean enabled) {
+        this.lookAhead = enabled;
+        applyLookAhead();
+    }
+
+    // Same lead time as AirTrafficControl: the plane reaches the stand after touchdown and coasting.
+    // A plane holding at the stand with the runway would keep the gate's holder from taking off,
+    // so there is no look-ahead while the runway is held until docked.
+    private void applyLookAhead() {
+        scheduler.setLookAhead(lookAhead && !runwayHeldUntilDocked,
+                (Plane.LANDING_TIME + Plane.COASTING_TIME) * 1_000_000L);
+    }
+
+    // Request to touchdown, microseconds
+    public LatencyHistogram getLandingWait() {
+        return landingWait;
+    }
+
+    public String getLookAheadSummary() {
+        return scheduler.getLookAheadSummary();
+    }
+
+    // For comparison with the separate runway / taxiway / gate stand segments
+    public void setRunwayHeldUntilDocked(boolean held) {
+        this.runwayHeldUntilDocked = held;
+        applyLookAhead();
+    }
+
+    // Identical servers taking flights in FIFO order: refuelling trucks or a crew pool.
+    // A single queue behaves like crews that always steal work from other gates.
+    private class ServicePool {
+        final String unitName;
+        final Statistics.Service service;
+        final int serviceTime;
+        final Queue<Job> waiting = new ArrayDeque<>();
+        final ArrayDeque<Integer> free = new ArrayDeque<>(); // The most recently freed unit goes first
+        final long[] busyMillis;
+
+        ServicePool(String unitName, Statistics.Service service, int serviceTime, int units) {
+            if (units < 1) {
+                throw new IllegalArgumentException("At least one " + unitName + " is required");
+            }
+            this.unitName = unitName;
+            this.service = service;
+            this.serviceTime = serviceTime;
+            this.busyMillis = new long[units];
+            for (int i = 0; i < units; i++) {
+                free.add(i);
+            }
+        }
+
+        void request(Runnable done) {
+            waiting.add(new Job(events.now(), done));
+            startNext();
+        }
+
+        private void startNext() {
+            while (!free.isEmpty() && !waiting.isEmpty()) {
+                Job job = waiting.poll();
+                int unit = free.poll();
+                events.schedule(serviceTime, () -> finish(job, unit));
+            }
+        }
+
+        private void finish(Job job, int unit) {
+            busyMillis[unit] += serviceTime;
+            free.push(unit);
+            recordServiceWait(service, events.now() - job.requestTime);
+            job.done.run();
+            startNext();
+        }
+
+        void appendSummary(StringBuilder sb) {
+            sb.append("--- ").append(unitName).append(" (").append(busyMillis.length).append(") ---\n");
+            for (int i = 0; i < busyMillis.length; i++) {
+                double busy = events.now() > 0 ? 100.0 * busyMillis[i] / events.now() : 0;
+                sb.append(unitName).append('-').append(i + 1).append(": ")
+                  .append(String.format("%.1f%% busy", busy))
+                  .append(", ").append(busyMillis[i] / serviceTime).append(" planes\n");
+            }
+        }
+    }
+
+    private static class Job {
+        final long requestTime;
+        final Runnable done;
+
+        Job(long requestTime, Runnable done) {
+            this.requestTime = requestTime;
+            this.done = done;
+        }
+    }
+
+    // Plane N arrives at N * arrivalIntervalMillis, like the threaded planes' start delay
+    public void scheduleArrivals(int numFlights, long arrivalIntervalMillis) {
+        for (int i = 1; i <= numFlights; i++) {
+            int number = i;
+            events.scheduleAt(number * arrivalIntervalMillis, () -> arrive(new Flight(number)));
+        }
+    }
+
+    // Streams the scenario's schedule: each arrival reads and schedules the one after it,
+    // so only one future arrival is ever queued
+    public void scheduleArrivals(Scenario scenario) throws IOException {
+        scheduleNextArrival(scenario);
+    }
+
+    private void scheduleNextArrival(Scenario scenario) throws IOException {
+        FlightArrival arrival = scenario.nextArrival();
+        if (arrival == null) {
+            return;
+        }
+        events.scheduleAt(arrival.getArrivalMillis(), () -> {
+            arrive(new Flight(arrival.getFlightName(), arrival.getEmergencyLevel()));
+            try {
+                scheduleNextArrival(scenario);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public void run() {
+        events.run();
+    }
+
+    public long getVirtualTimeMillis() {
+        return events.now();
+    }
+
+    public long getProcessedEvents() {
+        return events.getProcessedEvents();
+    }
+
+    public String getGateStatusCheck() {
+        return scheduler.getGateStatusCheck();
+    }
+
+    public String getGroundServiceSummary() {
+        StringBuilder sb = new StringBuilder();
+        refuellingTrucks.appendSummary(sb);
+        cleaningCrews.appendSummary(sb);
+        supplyCrews.appendSummary(sb);
+        return sb.toString();
+    }
+
+    // ===== Arrival and runway =====
+    private void arrive(Flight flight) {
+        Statistics.registerPlane();
+        flight.id = PlaneIds.register(flight.name);
+        if (flight.id >= flightsById.length) {
+            flightsById = Arrays.copyOf(flightsById, Math.max(flight.id + 1, flightsById.length * 2));
+        }
+        flightsById[flight.id] = flight;
+        flight.landingRequestTime = events.now();
+        if (flight.emergencyLevel > 1) {
+            log(flight, "Emergency landing request from " + flight.name);
+        } else {
+            log(flight, "Requesting landing permission...");
+        }
+        runwayQueue.offer(new RunwayRequest(flight.id, true, flight.emergencyLevel));
+        dispatch();
+    }
+
+    // Same decisions ATC makes whenever something changes
+    private void dispatch() {
+        while (true) {
+            boolean landingRunwayFree = runways.hasAvailable(true, this::isRunwayFree);
+            boolean takeoffRunwayFree = runways.hasAvailable(false, this::isRunwayFree);
+            RunwayRequest request = scheduler.nextRequest(landingRunwayFree, takeoffRunwayFree, nowNanos());
+            if (request == null) {
+                scheduleLookAhead();
+                return;
+            }
+            Flight flight = flightsById[request.getPlaneId()];
+            occupyRunway(flight, runways.select(request.isLanding(), this::isRunwayFree));
+            if (request.isLanding()) {
+                flight.gate = scheduler.clearLanding(request, nowNanos());
+                recordGrant(flight, flight.landingRequestTime);
+                log(flight, "Landing at Gate-" + flight.gate.getGateNumber() + onRunway(flight));
+                events.schedule(Plane.LANDING_TIME, () -> landed(flight));
+            } else {
+                dockIfHolding(scheduler.clearTakeoff(request, nowNanos()));
+                recordGrant(flight, flight.takeoffRequestTime);
+                log(flight, "Starting takeoff procedure..." + onRunway(flight));
+                events.schedule(Plane.TAKEOFF_TIME, () -> departed(flight));
+            }
+        }
+    }
+
+    // The scheduler's clock, in nanoseconds like AirTrafficControl's
+    private long nowNanos() {
+        return events.now() * 1_000_000;
+    }
+
+    // Nothing else happens when a landing becomes possible ahead of its gate, so dispatch again then
+    private void scheduleLookAhead() {
+        long at = scheduler.nextLookAheadTime(nowNanos());
+        if (at >= 0) {
+            long atMillis = (at + 999_999) / 1_000_000;
+            if (atMillis != lookAheadWakeUp) {
+                lookAheadWakeUp = atMillis;
+                events.scheduleAt(atMillis, this::dispatch);
+            }
+        }
+    }
+
+    private boolean isRunwayFree(Runway runway) {
+        return !busyRunways.contains(runway);
+    }
+
+    private void occupyRunway(Flight flight, Runway runway) {
+        busyRunways.add(runway);
+        flight.runway = runway;
+        flight.runwayAcquiredTime = events.now();
+    }
+
+    private void releaseRunway(Flight flight, boolean landing) {
+        flight.runway.recordOperation(landing, (events.now() - flight.runwayAcquiredTime) * 1_000_000);
+        busyRunways.remove(flight.runway);
+        flight.runway = null;
+    }
+
+    private String onRunway(Flight flight) {
+        return runways.size() > 1 ? " (Runway-" + flight.runway.getRunwayNumber() + ")" : "";
+    }
+
+    private void recordGrant(Flight flight, long requestTime) {
+        long latencyNanos = (events.now() - requestTime) * 1_000_000;
+        Statistics.recordGrantLatency(latencyNanos);
+        flight.runway.recordQueueWait(latencyNanos);
+    }
+
+    private void recordServiceWait(Statistics.Service service, long waitMillis) {
+        Statistics.recordServiceWait(service, waitMillis * 1_000_000);
+    }
+
+    private void landed(Flight flight) {
+        Statistics.recordLandingWait(events.now() - flight.landingRequestTime);
+        landingWait.record((events.now() - flight.landingRequestTime) * 1000);
+        if (runwayHeldUntilDocked) {
+            events.schedule(Plane.COASTING_TIME, () -> atGateStand(flight));
+            return;
+        }
+        // Same hand-off as Plane.land(): the runway is kept until the plane is on a taxiway
+        flight.landedTime = events.now();
+        Taxiway taxiway = taxiways.tryEnter();
+        if (taxiway != null) {
+            enterTaxiway(flight, taxiway);
+        } else {
+            waitingForTaxiway.add(flight);
+        }
+    }
+
+    private void enterTaxiway(Flight flight, Taxiway taxiway) {
+        taxiways.recordEntryWait((events.now() - flight.landedTime) * 1_000_000);
+        flight.taxiway = taxiway;
+        flight.taxiwayEnteredTime = events.now();
+        releaseRunway(flight, true);
+        dispatch();
+        log(flight, "Coasting to Gate-" + flight.gate.getGateNumber() + " on Taxiway-" + taxiway.getTaxiwayNumber());
+        events.schedule(Plane.COASTING_TIME, () -> atGateStand(flight));
+    }
+
+    private void atGateStand(Flight flight) {
+        if (flight.taxiway != null) {
+            taxiways.leave(flight.taxiway, (events.now() - flight.taxiwayEnteredTime) * 1_000_000);
+            flight.taxiway = null;
+            Flight next = waitingForTaxiway.peek();
+            if (next != null) {
+                Taxiway taxiway = taxiways.tryEnter();
+                if (taxiway != null) {
+                    waitingForTaxiway.poll();
+                    enterTaxiway(next, taxiway);
+                }
+            }
+        }
+        if (flight.gate.getOccupiedById() == flight.id) {
+            events.schedule(Plane.DOCKING_TIME, () -> docked(flight));
+        } else {
+            // Cleared ahead of its gate, docks once the gate is handed over
+            log(flight, "Holding at the stand for Gate-" + flight.gate.getGateNumber());
+            flight.holdingAtStand = true;
+            flight.standHoldStart = events.now();
+        }
+    }
+
+    // A gate freed by a takeoff clearance goes straight to the plane cleared ahead of time for it
+    private void dockIfHolding(Gate gate) {
+        int planeId = gate != null ? gate.getOccupiedById() : PlaneIds.NONE;
+        Flight flight = planeId != PlaneIds.NONE ? flightsById[planeId] : null;
+        if (flight != null && flight.holdingAtStand) {
+            flight.holdingAtStand = false;
+            Statistics.recordStandHold((events.now() - flight.standHoldStart) * 1_000_000);
+            events.schedule(Plane.DOCKING_TIME, () -> docked(flight));
+        }
+    }
+
+    private void docked(Flight flight) {
+        if (flight.runway != null) {
+            // Runway held until docked
+            releaseRunway(flight, true);
+            dispatch();
+        }
+        log(flight, "Docked at Gate-" + flight.gate.getGateNumber());
+        startTurnaround(flight);
+    }
+
+    // ===== Ground operations =====
+    // Tasks start as soon as their dependencies in the plan are done, like TurnaroundExecutor
+    private void startTurnaround(Flight flight) {
+        int taskCount = GroundTask.values().length;
+        flight.plan = TurnaroundPlan.current();
+        flight.turnaroundStart = events.now();
+        flight.tasksLeft = flight.plan.getTasks().size();
+        flight.pendingDependencies = new int[taskCount];
+        flight.taskEnd = new long[taskCount];
+        for (GroundTask task : flight.plan.getTasks()) {
+            flight.pendingDependencies[task.ordinal()] = flight.plan.getDependencies(task).size();
+        }
+        for (GroundTask task : flight.plan.getTasks()) {
+            if (flight.pendingDependencies[task.ordinal()] == 0) {
+                startTask(flight, task);
+            }
+        }
+    }
+
+    private void startTask(Flight flight, GroundTask task) {
+        switch (task) {
+            case DISEMBARK: {
+                int passengers = random.nextInt(51);
+                events.schedule(DisembarkPassenger.DISEMBARK_TIME, () -> {
+                    Statistics.recordPassengersDisembarked(passengers);
+                    taskDone(flight, task);
+                });
+                break;
+            }
+            case REFUEL:
+                refuellingTrucks.request(() -> taskDone(flight, task));
+                break;
+            case CLEAN:
+                cleaningCrews.request(() -> taskDone(flight, task));
+                break;
+            case SUPPLY:
+                supplyCrews.request(() -> taskDone(flight, task));
+                break;
+            case EMBARK: {
+                int passengers = random.nextInt(51);
+                events.schedule(EmbarkPassenger.EMBARK_TIME, () -> {
+                    Statistics.recordPassengersBoarded(passengers);
+                    taskDone(flight, task);
+                });
+                break;
+            }
+        }
+    }
+
+    private void taskDone(Flight flight, GroundTask task) {
+        flight.taskEnd[task.ordinal()] = events.now();
+        for (GroundTask dependent : flight.plan.getDependents(task)) {
+            if (--flight.pendingDependencies[dependent.ordinal()] == 0) {
+                startTask(flight, dependent);
+            }
+        }
+        if (--flight.tasksLeft == 0) {
+            List<GroundTask> criticalPath = flight.plan.criticalPath(flight.taskEnd);
+            Statistics.recordTurnaround((events.now() - flight.turnaroundStart) * 1_000_000,
+                    TurnaroundPlan.describe(criticalPath));
+            log(flight, "Turnaround completed, critical path: " + TurnaroundPlan.describe(criticalPath));
+            requestTakeoff(flight);
+        }
+    }
+
+    private void requestTakeoff(Flight flight) {
+        flight.takeoffRequestTime = events.now();
+        log(flight, "Requesting takeoff permission");
+        runwayQueue.offer(new RunwayRequest(flight.id, false, 1));
+        dispatch();
+    }
+
+    private void departed(Flight flight) {
+        // Same order as Plane.takeoff(): the runway is released before the ground slot
+        releaseRunway(flight, false);
+        dispatch();
+        scheduler.planeLeftGround();
+        Statistics.recordTakeoffWait(events.now() - flight.takeoffRequestTime);
+        flightsById[flight.id] = null;
+        PlaneIds.unregister(flight.id);
+        log(flight, "Successfully departed");
+        dispatch();
+    }
+
+    private void log(Flight flight, String message) {
+        if (verbose) {
+            long seconds = events.now() / 1000;
+            System.out.printf("[%02d:%02d:%02d] %s : %s%n",
+                seconds / 3600, (seconds / 60) % 60, seconds % 60, flight.name, message);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.sim;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.PriorityQueue;
+
+// Discrete-event core: a priority queue of timestamped actions and a virtual clock (ms).
+// Events with the same time run in the order they were scheduled.
+public class EventScheduler {
+    private final PriorityQueue<Event> events;
+    private long now;
+    private long nextSequence;
+    private long processedEvents;
+
+    private static class Event implements Comparable<Event> {
+        final long time;
+        final long sequence;
+        final Runnable action;
+
+        Event(long time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    public EventScheduler() {
+        this.events = new PriorityQueue<>();
+        this.now = 0;
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    public void schedule(long delayMillis, Runnable action) {
+        scheduleAt(now + delayMillis, action);
+    }
+
+    public void scheduleAt(long timeMillis, Runnable action) {
+        if (timeMillis < now) {
+            throw new IllegalArgumentException("Cannot schedule in the past: " + timeMillis + " < " + now);
+        }
+        events.add(new Event(timeMillis, nextSequence++, action));
+    }
+
+    // Runs events in time order until none are left
+    public void run() {
+        Event event;
+        while ((event = events.poll()) != null) {
+            now = event.time;
+            event.action.run();
+            processedEvents++;
+        }
+    }
+}
@@ -9,62 +9,106 @@ package airport.threads;
  * @author junyo
  */
 
+import airport.jfr.AtcDenialEvent;
+import airport.jfr.AtcGrantEvent;
+import airport.models.Clearance;
 import airport.models.Gate;
+import airport.models.PlaneIds;
 import airport.models.Runway;
+import airport.models.RunwayPool;
+import airport.models.RunwayQueue;
+import airport.models.RunwayRequest;
+import airport.models.RunwayScheduler;
+import airport.models.TaxiwayPool;
+import airport.recording.EventRecorder;
+import airport.recording.EventType;
+import airport.utils.LockProfiler;
 import airport.utils.Logger;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.concurrent.atomic.AtomicInteger;
+import airport.utils.Statistics;
+import airport.utils.Ticket;
+import airport.utils.TimeScale;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
 
 public class AirTrafficControl extends Thread {
-    private final Runway runway;
+    private final RunwayPool runways;
     private final List<Gate> gates;
+    private final TaxiwayPool taxiways; // Landed planes wait here for a taxiway, ATC does not dispatch them
     
-    // Single runway queue with skipping capability
-    private final Queue<RunwayRequest> runwayQueue;
+    // Runway/gate rules and the runway queue (ordered by emergency level, then arrival)
+    private final RunwayScheduler scheduler;
+    private final RunwayQueue runwayQueue;
     
-    private final AtomicInteger planesOnGround;
     private volatile boolean isRunning;
-    private final Set<String> deniedMessages;
-
-    // Request class
-    private static class RunwayRequest {
-        String planeName;
-        boolean isLanding; // true for landing, false for takeoff
-        boolean isEmergency;
-        long timestamp;
-
-        RunwayRequest(String planeName, boolean isLanding, boolean isEmergency) {
-            this.planeName = planeName;
-            this.isLanding = isLanding;
-            this.isEmergency = isEmergency;
-            this.timestamp = System.currentTimeMillis();
-        }
-    }
+    private boolean stateChanged; // Guarded by this
+    private long lookAheadAt = -1; // Guarded by this; nanoTime a landing can next be cleared ahead of its gate
+    private final LockProfiler.LockStats monitorStats; // Null unless lock profiling is on
+    private final LongAdder landingGrants = new LongAdder();
+    private final LongAdder takeoffGrants = new LongAdder();
 
     public AirTrafficControl(Runway runway, List<Gate> gates) {
+        this(new RunwayPool(List.of(runway)), gates);
+    }
+
+    public AirTrafficControl(RunwayPool runways, List<Gate> gates) {
+        this(runways, gates, RunwayScheduler.MAX_PLANES_ON_GROUND);
+    }
+
+    public AirTrafficControl(RunwayPool runways, List<Gate> gates, int maxPlanesOnGround) {
+        this(runways, gates, maxPlanesOnGround, TaxiwayPool.fromProperties());
+    }
+
+    public AirTrafficControl(RunwayPool runways, List<Gate> gates, int maxPlanesOnGround, TaxiwayPool taxiways) {
         super("AirTrafficControl");
-        this.runway = runway;
+        this.runways = runways;
         this.gates = new ArrayList<>(gates);
-        this.runwayQueue = new LinkedList<>();
-        this.planesOnGround = new AtomicInteger(0);
+        this.taxiways = taxiways;
+        this.scheduler = new RunwayScheduler(this.gates, maxPlanesOnGround);
+        this.runwayQueue = scheduler.getQueue();
         this.isRunning = true;
-        this.deniedMessages = new HashSet<>();
+        this.monitorStats = LockProfiler.register("AirTrafficControl");
+        // Look-ahead clears a landing this long before its gate is predicted to be free: touchdown and coasting.
+        // Off unless asked for: it needs more ground slots than gates, with as many of each a free slot means a free gate.
+        this.scheduler.setLookAhead(Boolean.parseBoolean(System.getProperty("airport.lookahead", "false")),
+                (long) ((Plane.LANDING_TIME + Plane.COASTING_TIME) * 1_000_000 * TimeScale.getScale()));
+
+        // Runway and gate releases are the events that can unblock a queued request
+        for (Runway runway : runways.getRunways()) {
+            runway.setReleaseListener(this::signalStateChange);
+        }
+        for (Gate gate : this.gates) {
+            gate.setReleaseListener(this::signalStateChange);
+        }
     }
 
     @Override
     public void run() {
         while (isRunning) {
             try {
+                long requested = LockProfiler.now();
                 synchronized(this) {
+                    long acquired = LockProfiler.acquired(monitorStats, requested);
+                    // Sleep until a request arrives, a runway, gate or ground slot is freed,
+                    // or a landing can be cleared ahead of its gate
+                    while (isRunning && !stateChanged) {
+                        long timeout = 0; // Milliseconds, 0 waits for a signal only
+                        if (lookAheadAt >= 0) {
+                            long remaining = lookAheadAt - System.nanoTime();
+                            if (remaining <= 0) {
+                                break;
+                            }
+                            timeout = (remaining + 999_999) / 1_000_000;
+                        }
+                        LockProfiler.released(monitorStats, acquired); // wait() gives the monitor up
+                        wait(timeout);
+                        acquired = LockProfiler.now();
+                    }
+                    stateChanged = false;
                     processRunwayRequests();
+                    lookAheadAt = scheduler.nextLookAheadTime(System.nanoTime());
+                    LockProfiler.released(monitorStats, acquired);
                 }
-                Thread.sleep(100); // Small delay to prevent busy waiting
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
@@ -72,197 +116,288 @@ public class AirTrafficControl extends Thread {
         }
     }
 
+    // Wake the ATC loop so it re-evaluates the queue
+    private void signalStateChange() {
+        long requested = LockProfiler.now();
+        synchronized (this) {
+            long acquired = LockProfiler.acquired(monitorStats, requested);
+            markStateChanged();
+            LockProfiler.released(monitorStats, acquired);
+        }
+    }
+
+    // Same, for callers already holding the monitor
+    private void markStateChanged() {
+        stateChanged = true;
+        notifyAll();
+    }
+
     private void processRunwayRequests() {
-        // If runway is occupied, log denials and return
-        if (runway.isOccupied()) {
-            // Log runway occupied denials for first request in queue (if any)
+        // Grant requests until no runway is left or nothing else can be served
+        while (true) {
+            boolean landingRunwayFree = runways.hasAvailable(true);
+            boolean takeoffRunwayFree = runways.hasAvailable(false);
+
+            // Log runway occupied denial for first request in queue if no runway can take it
             RunwayRequest firstRequest = runwayQueue.peek();
-            if (firstRequest != null) {
-                if (firstRequest.isLanding) {
-                    logDenial(firstRequest.planeName, "Landing denied for " + firstRequest.planeName + ", runway occupied.");
-                } else {
-                    logDenial(firstRequest.planeName, "Takeoff denied for " + firstRequest.planeName + ", runway occupied.");
-                }
+            if (firstRequest != null && !(firstRequest.isLanding() ? landingRunwayFree : takeoffRunwayFree)) {
+                logDenial(firstRequest, "runway occupied");
+            }
+            if (!landingRunwayFree && !takeoffRunwayFree) {
+                return;
             }
-            return;
-        }
 
-        // Find the first request in the queue that can actually be processed
-        Iterator<RunwayRequest> iterator = runwayQueue.iterator();
-        RunwayRequest requestToProcess = null;
-        
-        while (iterator.hasNext()) {
-            RunwayRequest request = iterator.next();
-            
-            if (request.isLanding) {
-                // Check if landing is possible
-                if (canProcessLandingRequest(request)) {
-                    requestToProcess = request;
-                    iterator.remove(); // Remove from queue
-                    break;
-                } else {
-                    // Log denial reason (only once per plane per reason)
-                    if (planesOnGround.get() >= 3) {
-                        logDenial(request.planeName, "Landing denied for " + request.planeName + ", airport full.");
-                    } else if (findAvailableGate() == null) {
-                        logDenial(request.planeName, "Landing denied for " + request.planeName + ", no gates available.");
-                    }
-                }
-            } else {
-                // Check if takeoff is possible
-                if (canProcessTakeoffRequest(request)) {
-                    requestToProcess = request;
-                    iterator.remove(); // Remove from queue
-                    break;
-                }
+            RunwayRequest landing = runwayQueue.peekLanding();
+            if (landingRunwayFree && landing != null && !scheduler.canProcessLandingRequest(System.nanoTime())) {
+                logLandingDenial(landing);
             }
-        }
-        
-        // Process the found request
-        if (requestToProcess != null) {
-            if (requestToProcess.isLanding) {
-                processLandingRequest(requestToProcess);
+
+            // Process the first request that can actually be served
+            RunwayRequest requestToProcess = scheduler.nextRequest(landingRunwayFree, takeoffRunwayFree, System.nanoTime());
+            if (requestToProcess == null) {
+                return;
+            }
+            Runway runway = runways.select(requestToProcess.isLanding());
+            if (requestToProcess.isLanding()) {
+                processLandingRequest(requestToProcess, runway);
             } else {
-                processTakeoffRequest(requestToProcess);
+                processTakeoffRequest(requestToProcess, runway);
             }
         }
     }
 
-    private boolean canProcessLandingRequest(RunwayRequest request) {
-        // Can land if airport not full AND there's an available gate
-        return planesOnGround.get() < 3 && findAvailableGate() != null;
+    // Log denial reason (only once per plane per reason)
+    private void logLandingDenial(RunwayRequest request) {
+        String reason = scheduler.landingDenialReason(System.nanoTime());
+        if (reason != null) {
+            logDenial(request, reason);
+        }
     }
 
-    private boolean canProcessTakeoffRequest(RunwayRequest request) {
-        // Can take off if the plane is actually at a gate
-        for (Gate gate : gates) {
-            if (request.planeName.equals(gate.getOccupiedBy())) {
-                return true;
-            }
+    private void processLandingRequest(RunwayRequest request, Runway runway) {
+        Gate availableGate = scheduler.clearLanding(request, System.nanoTime());
+        if (availableGate != null) {
+            Logger.log("Permission granted for " + request.getPlaneName() + " to land" + onRunway(runway) + ".");
+            Logger.log("Gate-" + availableGate.getGateNumber() + " assigned for " + request.getPlaneName()
+                    + (availableGate.getOccupiedById() != request.getPlaneId() ? ", free by the time it reaches the stand" : ""));
+            runway.reserve(request.getPlaneId());
+            recordGrant(request, runway, availableGate);
+            EventRecorder.record(EventType.LANDING_GRANTED, request.getPlaneId(), runway.getRunwayNumber());
+            EventRecorder.record(EventType.GATE_ASSIGNED, request.getPlaneId(), availableGate.getGateNumber());
+            request.getClearance().complete(new Clearance(runway, availableGate));
         }
-        return false;
     }
 
-    private void processLandingRequest(RunwayRequest request) {
-        Gate availableGate = findAvailableGate();
-        if (availableGate != null) {
-            Logger.log("Permission granted for " + request.planeName + " to land.");
-            Logger.log("Gate-" + availableGate.getGateNumber() + " assigned for " + request.planeName);
-            availableGate.occupy(request.planeName);
-            planesOnGround.incrementAndGet();
-            synchronized (request.planeName.intern()) {
-                request.planeName.intern().notifyAll();
-            }
+    private void processTakeoffRequest(RunwayRequest request, Runway runway) {
+        Logger.log("Permission granted for " + request.getPlaneName() + " to take off" + onRunway(runway) + ".");
+        runway.reserve(request.getPlaneId());
+        // Release the gate this plane is occupying
+        Gate occupiedGate = scheduler.clearTakeoff(request, System.nanoTime());
+        recordGrant(request, runway, occupiedGate);
+        EventRecorder.record(EventType.TAKEOFF_GRANTED, request.getPlaneId(), runway.getRunwayNumber());
+        request.getClearance().complete(new Clearance(runway, occupiedGate));
+    }
+
+    private void recordGrant(RunwayRequest request, Runway runway, Gate gate) {
+        long latency = System.nanoTime() - request.getRequestNanos();
+        Statistics.recordGrantLatency(latency);
+        runway.recordQueueWait(latency);
+        (request.isLanding() ? landingGrants : takeoffGrants).increment();
+        AtcGrantEvent event = new AtcGrantEvent();
+        if (event.shouldCommit()) {
+            event.plane = request.getPlaneName();
+            event.landing = request.isLanding();
+            event.runway = runway.getRunwayNumber();
+            event.gate = gate != null ? gate.getGateNumber() : 0;
+            event.queueWait = latency;
+            event.commit();
         }
     }
 
-    private void processTakeoffRequest(RunwayRequest request) {
-        // Find the gate this plane is occupying
-        Gate occupiedGate = null;
-        for (Gate gate : gates) {
-            if (request.planeName.equals(gate.getOccupiedBy())) {
-                occupiedGate = gate;
-                break;
+    // Runway number is only worth mentioning when there is more than one
+    private String onRunway(Runway runway) {
+        return runways.size() > 1 ? " on Runway-" + runway.getRunwayNumber() : "";
+    }
+
+    // The request remembers what was logged for it, so nothing is kept per plane once it has been granted.
+    // The plane's name is only looked up when there is something to log.
+    private void logDenial(RunwayRequest request, String reason) {
+        if (request.firstDenial(reason)) {
+            String planeName = request.getPlaneName();
+            Logger.log((request.isLanding() ? "Landing" : "Takeoff") + " denied for " + planeName + ", " + reason + ".");
+            EventRecorder.record(request.isLanding() ? EventType.LANDING_DENIED : EventType.TAKEOFF_DENIED,
+                    request.getPlaneId(), 0);
+            AtcDenialEvent denial = new AtcDenialEvent();
+            if (denial.shouldCommit()) {
+                denial.plane = planeName;
+                denial.landing = request.isLanding();
+                denial.reason = reason;
+                denial.commit();
             }
         }
-        
-        if (occupiedGate != null) {
-            Logger.log("Permission granted for " + request.planeName + " to take off.");
-            occupiedGate.release();
-            synchronized (request.planeName.intern()) {
-                request.planeName.intern().notifyAll();
+    }
+
+    // Returns the plane's clearance; it completes with the runway and assigned gate once landing is granted
+    public Ticket<Clearance> requestLanding(int planeId, int emergencyLevel) {
+        long requested = LockProfiler.now();
+        synchronized (this) {
+            long acquired = LockProfiler.acquired(monitorStats, requested);
+            try {
+                return queueLanding(planeId, emergencyLevel);
+            } finally {
+                LockProfiler.released(monitorStats, acquired);
             }
         }
     }
 
-    private void logDenial(String planeName, String message) {
-        String key = planeName + message;
-        if (!deniedMessages.contains(key)) {
-            Logger.log(message);
-            deniedMessages.add(key);
+    // Guarded by this
+    private Ticket<Clearance> queueLanding(int planeId, int emergencyLevel) {
+        RunwayRequest existing = runwayQueue.getLanding(planeId);
+        RunwayRequest request;
+        if (existing == null) {
+            request = new RunwayRequest(planeId, true, emergencyLevel);
+        } else if (emergencyLevel > existing.getEmergencyLevel()) {
+            // Re-queue with the higher level, keeping the ticket the plane already holds
+            runwayQueue.removeLanding(planeId);
+            request = new RunwayRequest(planeId, true, emergencyLevel, existing.getClearance());
+        } else {
+            return existing.getClearance(); // Already in queue
         }
+        if (request.isEmergency()) {
+            Logger.log("Emergency landing request from " + request.getPlaneName());
+        }
+        runwayQueue.offer(request);
+        if (!scheduler.canProcessLandingRequest(System.nanoTime())) {
+            logLandingDenial(request);
+        }
+        markStateChanged();
+        return request.getClearance();
     }
 
-    private Gate findAvailableGate() {
-        for (Gate gate : gates) {
-            if (!gate.isOccupied()) {
-                return gate;
-            }
-        }
-        return null;
-    }
-
-    public synchronized void requestLanding(String planeName, boolean isEmergency) {
-        if (isEmergency) {
-            Logger.log("Emergency landing request from " + planeName);
-            // Remove any existing request for this plane
-            runwayQueue.removeIf(req -> req.planeName.equals(planeName));
-            // Add emergency request to front with early timestamp
-            RunwayRequest emergencyRequest = new RunwayRequest(planeName, true, true);
-            emergencyRequest.timestamp = 0; // Highest priority
-            ((LinkedList<RunwayRequest>) runwayQueue).addFirst(emergencyRequest);
-        } else {
-            // Check if not already in queue
-            boolean alreadyInQueue = runwayQueue.stream()
-                .anyMatch(req -> req.planeName.equals(planeName) && req.isLanding);
-            if (!alreadyInQueue) {
-                // Always add to queue for proper runway management and processing order
-                runwayQueue.offer(new RunwayRequest(planeName, true, false));
+    // Returns the plane's clearance; it completes with the runway and the gate being vacated once takeoff is granted
+    public Ticket<Clearance> requestTakeoff(int planeId) {
+        long requested = LockProfiler.now();
+        synchronized (this) {
+            long acquired = LockProfiler.acquired(monitorStats, requested);
+            try {
+                RunwayRequest existing = runwayQueue.getTakeoff(planeId);
+                if (existing != null) {
+                    return existing.getClearance(); // Already in queue
+                }
+                RunwayRequest request = new RunwayRequest(planeId, false, 1);
+                runwayQueue.offer(request);
+                markStateChanged();
+                return request.getClearance();
+            } finally {
+                LockProfiler.released(monitorStats, acquired);
             }
         }
     }
 
-    public synchronized void requestTakeoff(String planeName) {
-        // Check if not already in queue
-        boolean alreadyInQueue = runwayQueue.stream()
-            .anyMatch(req -> req.planeName.equals(planeName) && !req.isLanding);
-        if (!alreadyInQueue) {
-            // Always add to queue for proper runway management and processing order
-            runwayQueue.offer(new RunwayRequest(planeName, false, false));
+    // Lock-free, the gate registry is updated by the gates themselves
+    public Gate getGateForPlane(int planeId) {
+        return scheduler.getGateForPlane(planeId);
+    }
+
+    public RunwayPool getRunways() {
+        return runways;
+    }
+
+    public TaxiwayPool getTaxiways() {
+        return taxiways;
+    }
+
+    public synchronized String getLookAheadSummary() {
+        return scheduler.getLookAheadSummary();
+    }
+
+    // ===== Live state for monitoring, none of these take the ATC monitor =====
+    public int getLandingQueueDepth() {
+        return runwayQueue.getLandingDepth();
+    }
+
+    public int getTakeoffQueueDepth() {
+        return runwayQueue.getTakeoffDepth();
+    }
+
+    public int getEmergencyQueueDepth() {
+        return runwayQueue.getEmergencyDepth();
+    }
+
+    public int getPlanesOnGround() {
+        return scheduler.getPlanesOnGround();
+    }
+
+    public int getMaxPlanesOnGround() {
+        return scheduler.getMaxPlanesOnGround();
+    }
+
+    public long getLandingGrants() {
+        return landingGrants.sum();
+    }
+
+    public long getTakeoffGrants() {
+        return takeoffGrants.sum();
+    }
+
+    public List<Gate> getGates() {
+        return gates;
+    }
+
+    // A cleared plane that could not get onto its runway gives its gate and ground slot back before going around
+    public void abortLanding(int planeId) {
+        long requested = LockProfiler.now();
+        synchronized (this) {
+            long acquired = LockProfiler.acquired(monitorStats, requested);
+            try {
+                Gate gate = scheduler.abortLanding(planeId, System.nanoTime());
+                if (gate != null) {
+                    Logger.log("Landing aborted for " + PlaneIds.name(planeId) + ", Gate-" + gate.getGateNumber() + " released");
+                }
+                markStateChanged();
+            } finally {
+                LockProfiler.released(monitorStats, acquired);
+            }
         }
     }
 
-    public Gate getGateForPlane(String planeName) {
-        for (Gate gate : gates) {
-            if (planeName.equals(gate.getOccupiedBy())) {
-                return gate;
+    // A plane that stops before departing (interrupted or failed) gives back whatever it still holds:
+    // queued requests, a runway reservation, its gate or pre-cleared booking, and its ground slot
+    public void withdraw(int planeId, boolean holdsGroundSlot) {
+        long requested = LockProfiler.now();
+        synchronized (this) {
+            long acquired = LockProfiler.acquired(monitorStats, requested);
+            try {
+                runwayQueue.removeLanding(planeId);
+                runwayQueue.removeTakeoff(planeId);
+                for (Runway runway : runways.getRunways()) {
+                    runway.cancelReservation(planeId);
+                }
+                // Also frees the ground slot if the plane was cleared to land, even if it never saw the clearance
+                Gate gate = scheduler.abortLanding(planeId, System.nanoTime());
+                if (gate != null) {
+                    Logger.log(PlaneIds.name(planeId) + " withdrawn, Gate-" + gate.getGateNumber() + " released");
+                } else if (holdsGroundSlot) {
+                    scheduler.planeLeftGround(); // Cleared to take off, the gate is already free
+                }
+                markStateChanged();
+            } finally {
+                LockProfiler.released(monitorStats, acquired);
             }
         }
-        return null;
     }
 
     public void planeLeftGround() {
-        planesOnGround.decrementAndGet();
+        scheduler.planeLeftGround();
+        signalStateChange();
     }
 
     public void shutdown() {
         isRunning = false;
+        signalStateChange();
     }
 
-    public String getGateStatusCheck() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("===== Gate Status Check =====\n");
-        
-        boolean allEmpty = true;
-        for (Gate gate : gates) {
-            String status = gate.isOccupied() ? 
-                "OCCUPIED by " + gate.getOccupiedBy() : "EMPTY";
-            sb.append("Gate-").append(gate.getGateNumber()).append(": ").append(status).append("\n");
-            
-            if (gate.isOccupied()) {
-                allEmpty = false;
-            }
-        }
-        
-        sb.append("\nSanity Check Result: ");
-        if (allEmpty) {
-            sb.append("All gates are empty - PASSED\n");
-        } else {
-            sb.append("Some gates still occupied - FAILED\n");
-        }
-        sb.append("==============================");
-        
-        return sb.toString();
+    public synchronized String getGateStatusCheck() {
+        return scheduler.getGateStatusCheck();
     }
 }
-
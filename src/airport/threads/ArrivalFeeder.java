@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.threads;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.scenario.FlightArrival;
+import airport.scenario.Scenario;
+import airport.utils.Logger;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+// Reads a scenario's arrival schedule as the clock advances and starts each plane shortly
+// before it is due. Only planes that are still flying are referenced, so memory follows the
+// number of aircraft in the air or on the ground rather than the length of the schedule.
+// join() returns once the schedule is exhausted and every plane has departed.
+public class ArrivalFeeder extends ManagedThread {
+    public static final long LOOKAHEAD = 1000; // Planes are created this many milliseconds before arrival
+
+    private final Scenario scenario;
+    private final BiFunction<FlightArrival, Long, Plane> newPlane; // Arrival and the delay until it is due
+    private final List<Plane> activePlanes;
+    private int reapThreshold;
+    private volatile long planesStarted; // Read by status reports while the feeder runs
+
+    public ArrivalFeeder(Scenario scenario, BiFunction<FlightArrival, Long, Plane> newPlane) {
+        super("ArrivalFeeder");
+        this.scenario = scenario;
+        this.newPlane = newPlane;
+        this.activePlanes = new ArrayList<>();
+        this.reapThreshold = 64;
+    }
+
+    @Override
+    public void run() {
+        long startMillis = System.currentTimeMillis();
+        try {
+            FlightArrival arrival;
+            while ((arrival = scenario.nextArrival()) != null) {
+                long dueIn = startMillis + arrival.getArrivalMillis() - System.currentTimeMillis();
+                if (dueIn > LOOKAHEAD) {
+                    Thread.sleep(dueIn - LOOKAHEAD);
+                    dueIn = LOOKAHEAD;
+                }
+                Plane plane = newPlane.apply(arrival, Math.max(0, dueIn));
+                plane.start();
+                activePlanes.add(plane);
+                planesStarted++;
+                if (activePlanes.size() >= reapThreshold) {
+                    reapDeparted();
+                }
+            }
+            for (Plane plane : activePlanes) {
+                plane.join();
+            }
+            activePlanes.clear();
+        } catch (IOException e) {
+            Logger.error("Scenario stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Drops departed planes; the threshold doubles with the live count so this stays amortised O(1)
+    private void reapDeparted() {
+        activePlanes.removeIf(plane -> !plane.isAlive());
+        reapThreshold = Math.max(64, activePlanes.size() * 2);
+    }
+
+    public long getPlanesStarted() {
+        return planesStarted;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.threads;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.utils.LatencyHistogram;
+import airport.utils.Statistics;
+import airport.utils.Ticket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+
+// One kind of ground crew (cleaning or supply) shared by all gates.
+// Requests go onto the deque of the plane's gate. Each crew has a home gate and takes the
+// oldest task there first; if its gate has nothing, it steals the newest task of another gate.
+// Headcount is independent of the gate count.
+public class CrewPool {
+    private final Statistics.Service service;
+    private final List<ConcurrentLinkedDeque<CrewTask>> gateQueues; // Index = gate number - 1
+    private final Semaphore tasksQueued; // One permit per queued task, idle crews park here
+    private final List<GroundCrew> crews;
+    private final LatencyHistogram queueWait; // Request until a crew picks it up, microseconds
+    private volatile boolean isRunning;
+
+    // A requested job and the ticket the plane waits on
+    static class CrewTask {
+        final int planeId;
+        final Ticket<Void> ticket = new Ticket<>();
+
+        CrewTask(int planeId) {
+            this.planeId = planeId;
+        }
+    }
+
+    private CrewPool(Statistics.Service service, int crewCount, int gateCount,
+                     BiFunction<Integer, CrewPool, GroundCrew> newCrew) {
+        if (crewCount < 1 || gateCount < 1) {
+            throw new IllegalArgumentException("A crew pool needs at least one crew and one gate");
+        }
+        this.service = service;
+        this.gateQueues = new ArrayList<>();
+        for (int i = 0; i < gateCount; i++) {
+            gateQueues.add(new ConcurrentLinkedDeque<>());
+        }
+        this.tasksQueued = new Semaphore(0);
+        this.queueWait = new LatencyHistogram();
+        this.isRunning = true;
+        List<GroundCrew> pool = new ArrayList<>();
+        for (int i = 1; i <= crewCount; i++) {
+            pool.add(newCrew.apply(i, this));
+        }
+        this.crews = Collections.unmodifiableList(pool);
+    }
+
+    public static CrewPool cleaning(int crewCount, int gateCount) {
+        return new CrewPool(Statistics.Service.CLEANING, crewCount, gateCount, CleaningCrew::new);
+    }
+
+    public static CrewPool supply(int crewCount, int gateCount) {
+        return new CrewPool(Statistics.Service.SUPPLY, crewCount, gateCount, SupplyCrew::new);
+    }
+
+    public void start() {
+        for (GroundCrew crew : crews) {
+            crew.start();
+        }
+    }
+
+    public Ticket<Void> request(int gateNumber, int planeId) {
+        CrewTask task = new CrewTask(planeId);
+        gateQueues.get(gateNumber - 1).offerLast(task);
+        tasksQueued.release();
+        return task.ticket;
+    }
+
+    // Blocks until the work for this plane is done
+    public void serve(int gateNumber, int planeId) throws InterruptedException {
+        request(gateNumber, planeId).await();
+    }
+
+    // Home gate of a crew, crews are spread round-robin over the gates
+    int homeGate(int crewNumber) {
+        return (crewNumber - 1) % gateQueues.size() + 1;
+    }
+
+    // Next task for a crew, blocking while there is none; null once the pool shuts down
+    CrewTask takeTask(GroundCrew crew) throws InterruptedException {
+        while (isRunning) {
+            tasksQueued.acquire();
+            int home = crew.getHomeGate() - 1;
+            CrewTask task = gateQueues.get(home).pollFirst();
+            // Our permit guarantees a task somewhere, scan the other gates for it
+            for (int i = 1; task == null && i < gateQueues.size() && isRunning; i++) {
+                task = gateQueues.get((home + i) % gateQueues.size()).pollLast();
+                if (task != null) {
+                    crew.recordSteal();
+                }
+            }
+            if (task != null) {
+                queueWait.record((System.nanoTime() - task.ticket.getCreatedNanos()) / 1000);
+                return task;
+            }
+            if (isRunning) {
+                tasksQueued.release(); // Raced with another crew's scan, let the permit go round again
+            }
+        }
+        return null;
+    }
+
+    Statistics.Service getService() {
+        return service;
+    }
+
+    public void shutdown() {
+        isRunning = false;
+        tasksQueued.release(crews.size()); // Wake idle crews so they see the flag
+    }
+
+    public List<GroundCrew> getCrews() {
+        return crews;
+    }
+
+    public String getServiceName() {
+        return service.getLabel();
+    }
+
+    // Tasks not yet picked up by a crew
+    public int getQueueLength() {
+        return isRunning ? tasksQueued.availablePermits() : 0;
+    }
+
+    public String getUtilizationSummary(long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- ").append(crews.get(0).getClass().getSimpleName()).append(" Pool (")
+          .append(crews.size()).append(" crews, ").append(gateQueues.size()).append(" gates) ---\n");
+        for (GroundCrew crew : crews) {
+            double busy = elapsedNanos > 0 ? 100.0 * crew.getBusyNanos() / elapsedNanos : 0;
+            sb.append(crew.getName()).append(": ")
+              .append(String.format("%.1f%% busy", busy))
+              .append(", ").append(crew.getPlanesServed()).append(" planes")
+              .append(", ").append(crew.getSteals()).append(" stolen\n");
+        }
+        if (queueWait.getCount() > 0) {
+            sb.append(String.format("Queue wait: avg %.3f s, P99 %.3f s%n",
+                    queueWait.getMean() / 1_000_000.0, queueWait.getPercentile(99) / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+}
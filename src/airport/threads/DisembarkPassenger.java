@@ -8,12 +8,14 @@ package airport.threads;
  *
  * @author junyo
  */
+import airport.jfr.GroundServiceEvent;
 import airport.utils.Logger;
 import airport.utils.Statistics;
+import airport.utils.TimeScale;
 import java.util.Random;
 
-public class DisembarkPassenger extends Thread {
-    private static final int DISEMBARK_TIME = 3000; // 3 seconds to disembark
+public class DisembarkPassenger extends ManagedThread {
+    public static final int DISEMBARK_TIME = 3000; // 3 seconds to disembark
     private final String planeName;
     private final int passengerCount; 
     private static final Random rand = new Random();
@@ -28,7 +30,16 @@ public class DisembarkPassenger extends Thread {
     public void run() {
         try {
             Logger.log("Disembarking " + passengerCount + " passengers for " + planeName);
-            Thread.sleep(DISEMBARK_TIME);
+            GroundServiceEvent serviceEvent = new GroundServiceEvent();
+            serviceEvent.begin();
+            TimeScale.sleep(DISEMBARK_TIME);
+            serviceEvent.end();
+            if (serviceEvent.shouldCommit()) {
+                serviceEvent.service = "Disembark";
+                serviceEvent.plane = planeName;
+                serviceEvent.doneBy = passengerCount + " passengers";
+                serviceEvent.commit();
+            }
             Statistics.recordPassengersDisembarked(passengerCount);
             Logger.log("All " + passengerCount + " passengers disembarked from " + planeName);
         } catch (InterruptedException e) {
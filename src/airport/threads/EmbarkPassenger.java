@@ -9,12 +9,14 @@ package airport.threads;
  * @author junyo
  */
 
+import airport.jfr.GroundServiceEvent;
 import airport.utils.Logger;
 import airport.utils.Statistics;
+import airport.utils.TimeScale;
 import java.util.Random;
 
-public class EmbarkPassenger extends Thread {
-    private static final int EMBARK_TIME = 3000; // 3 seconds to embark
+public class EmbarkPassenger extends ManagedThread {
+    public static final int EMBARK_TIME = 3000; // 3 seconds to embark
     private final String planeName;
     private final int passengerCount;
     private final Random random;
@@ -30,7 +32,16 @@ public class EmbarkPassenger extends Thread {
     public void run() {
         try {
             Logger.log("Embarking " + passengerCount + " passengers for " + planeName);
-            Thread.sleep(EMBARK_TIME);
+            GroundServiceEvent serviceEvent = new GroundServiceEvent();
+            serviceEvent.begin();
+            TimeScale.sleep(EMBARK_TIME);
+            serviceEvent.end();
+            if (serviceEvent.shouldCommit()) {
+                serviceEvent.service = "Embark";
+                serviceEvent.plane = planeName;
+                serviceEvent.doneBy = passengerCount + " passengers";
+                serviceEvent.commit();
+            }
             Statistics.recordPassengersBoarded(passengerCount);
             Logger.log(passengerCount + " passengers successfully boarded " + planeName);
         } catch (InterruptedException e) {
@@ -0,0 +1,105 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.threads;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.jfr.GroundServiceEvent;
+import airport.models.PlaneIds;
+import airport.recording.EventRecorder;
+import airport.recording.EventType;
+import airport.utils.Statistics;
+import java.util.concurrent.atomic.LongAdder;
+
+// A crew worker in a CrewPool: takes tasks from the pool and does the work outside any lock
+public abstract class GroundCrew extends ManagedThread {
+    private final int crewNumber;
+    private final int homeGate;
+    private final CrewPool pool;
+    private final EventType startedEvent;
+    private final EventType finishedEvent;
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder planesServed = new LongAdder();
+    private final LongAdder steals = new LongAdder();
+
+    protected GroundCrew(String name, int crewNumber, CrewPool pool, EventType startedEvent, EventType finishedEvent) {
+        super(name);
+        this.crewNumber = crewNumber;
+        this.pool = pool;
+        this.startedEvent = startedEvent;
+        this.finishedEvent = finishedEvent;
+        this.homeGate = pool.homeGate(crewNumber);
+    }
+
+    // The job itself, e.g. cleaning the cabin
+    protected abstract void work(int planeId) throws InterruptedException;
+
+    @Override
+    public void run() {
+        try {
+            CrewPool.CrewTask task;
+            while ((task = pool.takeTask(this)) != null) {
+                try {
+                    serve(task);
+                } catch (InterruptedException | RuntimeException e) {
+                    task.ticket.fail(e); // The plane must not wait for work that is never finished
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serve(CrewPool.CrewTask task) throws InterruptedException {
+        long start = System.nanoTime();
+        EventRecorder.record(startedEvent, task.planeId, crewNumber);
+        GroundServiceEvent serviceEvent = new GroundServiceEvent();
+        serviceEvent.begin();
+        work(task.planeId);
+        serviceEvent.end();
+        long end = System.nanoTime();
+        if (serviceEvent.shouldCommit()) {
+            serviceEvent.service = pool.getServiceName();
+            serviceEvent.plane = PlaneIds.name(task.planeId);
+            serviceEvent.doneBy = getName();
+            serviceEvent.queueWait = start - task.ticket.getCreatedNanos();
+            serviceEvent.commit();
+        }
+        EventRecorder.record(finishedEvent, task.planeId, crewNumber);
+        busyNanos.add(end - start);
+        planesServed.increment();
+        Statistics.recordServiceWait(pool.getService(), end - task.ticket.getCreatedNanos());
+        // Notify the plane that the work is complete
+        task.ticket.complete(null);
+    }
+
+    void recordSteal() {
+        steals.increment();
+    }
+
+    public int getCrewNumber() {
+        return crewNumber;
+    }
+
+    public int getHomeGate() {
+        return homeGate;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos.sum();
+    }
+
+    public long getPlanesServed() {
+        return planesServed.sum();
+    }
+
+    public long getSteals() {
+        return steals.sum();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.threads;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.utils.ExecutionMode;
+
+// Base for simulation actors that used to extend Thread. The actual thread is created
+// on start() from the current ExecutionMode, so the same class runs on a platform or virtual thread.
+public abstract class ManagedThread implements Runnable {
+    private final String name;
+    private int priority;
+    private Thread thread;
+
+    protected ManagedThread(String name) {
+        this.name = name;
+        this.priority = Thread.NORM_PRIORITY;
+    }
+
+    public final String getName() {
+        return name;
+    }
+
+    // Only applied to platform threads, virtual threads ignore priorities
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalThreadStateException(name + " already started");
+        }
+        thread = ExecutionMode.current().newThread(name, this);
+        if (!thread.isVirtual()) {
+            thread.setPriority(priority);
+        }
+        thread.start();
+    }
+
+    public void join() throws InterruptedException {
+        Thread started;
+        synchronized (this) {
+            started = thread;
+        }
+        if (started != null) {
+            started.join();
+        }
+    }
+
+    public void join(long millis) throws InterruptedException {
+        Thread started;
+        synchronized (this) {
+            started = thread;
+        }
+        if (started != null) {
+            started.join(millis);
+        }
+    }
+
+    public synchronized boolean isAlive() {
+        return thread != null && thread.isAlive();
+    }
+
+    public synchronized void interrupt() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
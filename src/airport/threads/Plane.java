@@ -9,178 +9,283 @@ package airport.threads;
  * @author junyo
  */
 
+import airport.models.Clearance;
 import airport.models.Gate;
+import airport.models.PlaneIds;
+import airport.models.GroundTask;
 import airport.models.Runway;
+import airport.models.Taxiway;
+import airport.models.TurnaroundPlan;
+import airport.monitoring.FlightWatchdog;
+import airport.monitoring.FlightWatchdog.Phase;
+import airport.recording.EventRecorder;
+import airport.recording.EventType;
 import airport.utils.Logger;
 import airport.utils.Statistics;
+import airport.utils.Ticket;
+import airport.utils.TimeScale;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Random;
 
-public class Plane extends Thread {
+public class Plane extends ManagedThread {
     // Operation times in milliseconds
-    private static final int LANDING_TIME = 1000;      // 2 seconds for landing
-    private static final int COASTING_TIME = 1000;     // 1 seconds for coasting to gate
-    private static final int DOCKING_TIME = 1000;      // 1 seconds for docking procedure
-    private static final int TAKEOFF_TIME = 2000;      // 2 seconds for takeoff
+    public static final int LANDING_TIME = 1000;      // 2 seconds for landing
+    public static final int COASTING_TIME = 1000;     // 1 seconds for coasting to gate
+    public static final int DOCKING_TIME = 1000;      // 1 seconds for docking procedure
+    public static final int TAKEOFF_TIME = 2000;      // 2 seconds for takeoff
+    public static final int ARRIVAL_INTERVAL = 1000;  // Plane N arrives N seconds after the start
 
     private final AirTrafficControl atc;
-    private final Runway runway;
-    private final RefuellingTruck refuellingTruck;
-    private final CleaningCrew[] cleaningCrews;
-    private final SupplyCrew[] supplyCrews;
-    private final int planeNumber;
+    private final RefuellingFleet refuellingFleet;
+    private final CrewPool cleaningCrews;
+    private final CrewPool supplyCrews;
+    private final long arrivalDelay; // Milliseconds from start() until the plane asks to land
     private final EmbarkPassenger embarkPassenger;
     private final DisembarkPassenger disembarkPassenger; // Add this field
     private final Random random;
-    private boolean isEmergency;
+    private final int planeId; // Compact handle ATC, gates, runways and crews know the plane by
+    private final FlightWatchdog.Flight flight; // Null unless a watchdog is running
+    private int emergencyLevel;
+    private Gate assignedGate;
+    private Runway assignedRunway; // Runway of the current clearance, landing or takeoff
+    private boolean holdsGroundSlot; // From landing clearance until the plane has left the ground
     private long landingRequestTime;
     private long takeoffRequestTime;
 
-    public Plane(int number, AirTrafficControl atc, Runway runway, 
-                RefuellingTruck refuellingTruck, 
-                CleaningCrew[] cleaningCrews,
-                SupplyCrew[] supplyCrews,
+    public Plane(int number, AirTrafficControl atc,
+                RefuellingFleet refuellingFleet, 
+                CrewPool cleaningCrews,
+                CrewPool supplyCrews,
                 EmbarkPassenger embarkPassenger) {
-        super("Plane-" + number);
-        this.planeNumber = number;
+        this("Plane-" + number, emergencyLevelFor(number), number * ARRIVAL_INTERVAL,
+                atc, refuellingFleet, cleaningCrews, supplyCrews, embarkPassenger);
+    }
+
+    // Used for scenario flights, which bring their own name, emergency level and arrival time
+    public Plane(String name, int emergencyLevel, long arrivalDelay, AirTrafficControl atc,
+                RefuellingFleet refuellingFleet,
+                CrewPool cleaningCrews,
+                CrewPool supplyCrews,
+                EmbarkPassenger embarkPassenger) {
+        super(name);
+        this.arrivalDelay = arrivalDelay;
         this.atc = atc;
-        this.runway = runway;
-        this.refuellingTruck = refuellingTruck;
+        this.refuellingFleet = refuellingFleet;
         this.cleaningCrews = cleaningCrews;
         this.supplyCrews = supplyCrews;
         this.embarkPassenger = embarkPassenger; // Store reference to external passenger group
         this.disembarkPassenger = new DisembarkPassenger(getName()); // Create disembark thread in constructor
         this.random = new Random();
-        this.isEmergency = false;
+        this.planeId = PlaneIds.register(name);
+        EventRecorder.registerPlane(planeId);
+        this.flight = FlightWatchdog.track(planeId, name);
         
-        // Set priority based on plane number (Plane-5 gets highest emergency)
-        if (number == 5) {
-            setEmergencyLevel(3);  // Highest emergency level
-        } else {
-            setEmergencyLevel(1);  // Normal priority
-        }
+        setEmergencyLevel(emergencyLevel);
         
         Statistics.registerPlane();
     }
 
     @Override
     public void run() {
+        boolean departed = false;
         try {
-            // Wait based on plane number to ensure sequential arrival
-            Thread.sleep(planeNumber * 1000); // 1 second delay per plane number
+            // Wait until the plane's arrival time
+            TimeScale.sleep(arrivalDelay);
             
             // Request landing
             requestLanding();
             
-            // Land and operate
-            if (land()) {
-                performGroundOperations();
-                takeoff();
+            // Land (going around until we get onto a runway) and operate
+            while (!land()) {
+                goAround();
             }
+            performGroundOperations();
+            takeoff();
+            departed = true;
         } catch (InterruptedException e) {
             Logger.log("Operations interrupted");
             Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            Logger.error("Operations failed: " + e.getMessage()); // E.g. a ground service was stopped mid-job
+        } finally {
+            boolean released = departed || withdraw();
+            EventRecorder.unregisterPlane(planeId);
+            FlightWatchdog.finished(flight);
+            if (released) {
+                PlaneIds.unregister(planeId); // Last, the id may go to the next plane straight away
+            } else {
+                Logger.error("Plane id of " + getName() + " is still referenced and will not be reused");
+            }
+        }
+    }
+
+    // Stopped before departing: give back the runway, queued requests, gate and ground slot.
+    // True once nothing refers to the plane's id any more.
+    private boolean withdraw() {
+        Runway runway = assignedRunway;
+        if (runway != null && runway.isHeldByCurrentThread()) {
+            runway.release();
         }
+        atc.withdraw(planeId, holdsGroundSlot);
+        if (holdsGroundSlot) {
+            holdsGroundSlot = false;
+            FlightWatchdog.groundSlot(flight, false);
+        }
+        return atc.getGateForPlane(planeId) == null;
     }
 
     private void requestLanding() throws InterruptedException {
         landingRequestTime = System.currentTimeMillis();
+        FlightWatchdog.enter(flight, Phase.LANDING_WAIT);
         Logger.log("Requesting landing permission...");
-        atc.requestLanding(getName(), isEmergency);
+        awaitLandingClearance();
+    }
+
+    private void awaitLandingClearance() throws InterruptedException {
+        EventRecorder.record(EventType.LANDING_REQUESTED, planeId, 0);
+        Ticket<Clearance> clearance = atc.requestLanding(planeId, emergencyLevel);
         
-        // Wait for permission (will be notified by ATC)
-        synchronized (getName().intern()) {
-            getName().intern().wait();
-        }
+        // Wait for permission (ATC completes the ticket with our runway and gate)
+        Clearance granted = clearance.await();
+        assignedRunway = granted.getRunway();
+        assignedGate = granted.getGate();
+        holdsGroundSlot = true;
+        FlightWatchdog.groundSlot(flight, true);
+    }
+
+    // The runway could not be acquired: hand the gate and ground slot back and ask again
+    private void goAround() throws InterruptedException {
+        Logger.warn("Could not get onto Runway-" + assignedRunway.getRunwayNumber() + ", going around");
+        atc.abortLanding(planeId);
+        holdsGroundSlot = false;
+        FlightWatchdog.groundSlot(flight, false);
+        assignedGate = null;
+        assignedRunway = null;
+        awaitLandingClearance();
     }
 
     private boolean land() throws InterruptedException {
-        // Try to acquire runway
-        if (runway.acquireForLanding(getName(), 5000)) {
+        // Try to acquire the runway ATC assigned
+        Runway runway = assignedRunway;
+        if (runway.acquireForLanding(planeId, 5000)) {
+            FlightWatchdog.enter(flight, Phase.LANDING);
             Logger.log("Landing...");
-            Thread.sleep(LANDING_TIME); // Landing time
+            EventRecorder.record(EventType.TOUCHDOWN, planeId, runway.getRunwayNumber());
+            TimeScale.sleep(LANDING_TIME); // Landing time
             Logger.log("Landed");
             
             // Record landing statistics
             long waitTime = System.currentTimeMillis() - landingRequestTime;
             Statistics.recordLandingWait(waitTime);
             
-            // Get assigned gate
-            Gate assignedGate = atc.getGateForPlane(getName());
-            Logger.log("Coasting to Gate-" + assignedGate.getGateNumber());
-            Thread.sleep(COASTING_TIME); // Coasting time
+            // Off the runway as soon as there is room on a taxiway, the next plane can land meanwhile
+            Taxiway taxiway;
+            try {
+                taxiway = atc.getTaxiways().enter();
+            } finally {
+                runway.release(); // Also when interrupted while waiting for a taxiway
+            }
+            long taxiStart = System.nanoTime();
+            try {
+                Logger.log("Coasting to Gate-" + assignedGate.getGateNumber() + " on Taxiway-" + taxiway.getTaxiwayNumber());
+                TimeScale.sleep(COASTING_TIME); // Coasting time
+            } finally {
+                atc.getTaxiways().leave(taxiway, System.nanoTime() - taxiStart);
+            }
+            if (assignedGate.getOccupiedById() != planeId) {
+                // Cleared ahead of the gate, which ATC hands over once its current plane is cleared to leave
+                Logger.log("Holding at the stand for Gate-" + assignedGate.getGateNumber());
+                long holdStart = System.nanoTime();
+                assignedGate.awaitOccupant(planeId);
+                Statistics.recordStandHold(System.nanoTime() - holdStart);
+            }
             Logger.log("Starting docking procedure at Gate-" + assignedGate.getGateNumber());
-            Thread.sleep(DOCKING_TIME); // Docking time
+            TimeScale.sleep(DOCKING_TIME); // Docking time
             Logger.log("Docked at Gate-" + assignedGate.getGateNumber());
+            EventRecorder.record(EventType.DOCKED, planeId, assignedGate.getGateNumber());
             
-            runway.release();
+            FlightWatchdog.enter(flight, Phase.TURNAROUND);
             return true;
         }
         return false;
     }
 
     private void performGroundOperations() throws InterruptedException {
-        Gate assignedGate = atc.getGateForPlane(getName());
-        int gateIndex = assignedGate.getGateNumber() - 1;
+        int gateNumber = assignedGate.getGateNumber();
 
-        // Start passenger disembarkation (using pre-created thread)
-        disembarkPassenger.start();
-
-        // Start refuelling (can happen in parallel with disembarkation)
-        Thread refuelThread = new Thread(() -> {
-            try {
-                Logger.log("Request for refuelling");
-                refuellingTruck.requestRefuelling(getName());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        // What each task means for this plane; the order and parallelism come from the turnaround plan
+        Map<GroundTask, TurnaroundExecutor.Action> actions = new EnumMap<>(GroundTask.class);
+        actions.put(GroundTask.DISEMBARK, () -> runInline(disembarkPassenger));
+        actions.put(GroundTask.REFUEL, () -> {
+            Logger.log("Request for refuelling");
+            refuellingFleet.requestRefuelling(planeId).await();
         });
-        refuelThread.setName(getName()); // Set thread name to plane name
-        refuelThread.start();
-
-        // Wait for disembarkation to complete before cleaning
-        disembarkPassenger.join();
+        actions.put(GroundTask.CLEAN, () -> cleaningCrews.serve(gateNumber, planeId));
+        actions.put(GroundTask.SUPPLY, () -> supplyCrews.serve(gateNumber, planeId));
+        actions.put(GroundTask.EMBARK, () -> runInline(embarkPassenger));
 
-        // Sequential cabin operations
-        cleaningCrews[gateIndex].cleanPlane(getName());
-        supplyCrews[gateIndex].supplyPlane(getName());
-
-        // Wait for refuelling to complete before boarding
-        refuelThread.join();
+        new TurnaroundExecutor(planeId, TurnaroundPlan.current(), actions).run();
+    }
 
-        // Board new passengers
-        embarkPassenger.start();
-        embarkPassenger.join();
+    // Passengers move on the task's own thread; their run() only leaves the interrupt flag behind
+    private static void runInline(Runnable passengers) throws InterruptedException {
+        passengers.run();
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
     }
 
     private void takeoff() throws InterruptedException {
         takeoffRequestTime = System.currentTimeMillis();
+        FlightWatchdog.enter(flight, Phase.TAKEOFF_WAIT);
         Logger.log("Requesting takeoff permission");
-        atc.requestTakeoff(getName());
+        EventRecorder.record(EventType.TAKEOFF_REQUESTED, planeId, assignedGate.getGateNumber());
+        Ticket<Clearance> clearance = atc.requestTakeoff(planeId);
         
         // Wait for permission from ATC
-        synchronized (getName().intern()) {
-            getName().intern().wait();
-        }
+        assignedRunway = clearance.await().getRunway();
 
         // ATC has granted permission, now acquire runway for takeoff
+        Runway runway = assignedRunway;
         Logger.log("Starting takeoff procedure...");
-        runway.acquireForTakeoff(getName(), 5000);
-        Thread.sleep(TAKEOFF_TIME); // Takeoff time
+        // Our gate is already given up, so there is nothing to do but keep trying
+        while (!runway.acquireForTakeoff(planeId, 5000)) {
+            Logger.warn("Still waiting for Runway-" + runway.getRunwayNumber() + " to take off");
+        }
+        FlightWatchdog.enter(flight, Phase.TAKEOFF);
+        EventRecorder.record(EventType.TAKEOFF_STARTED, planeId, runway.getRunwayNumber());
+        TimeScale.sleep(TAKEOFF_TIME); // Takeoff time
         runway.release();
+        EventRecorder.record(EventType.DEPARTED, planeId, runway.getRunwayNumber());
         
         // Record takeoff statistics
         long waitTime = System.currentTimeMillis() - takeoffRequestTime;
         Statistics.recordTakeoffWait(waitTime);
         
         atc.planeLeftGround();
+        holdsGroundSlot = false;
+        FlightWatchdog.groundSlot(flight, false);
         Logger.log("Successfully departed");
     }
 
+    public int getPlaneId() {
+        return planeId;
+    }
+
+    // Set priority based on plane number (Plane-5 gets highest emergency)
+    public static int emergencyLevelFor(int planeNumber) {
+        if (planeNumber == 5) {
+            return 3;  // Highest emergency level
+        }
+        return 1;  // Normal priority
+    }
+
     public void setEmergencyLevel(int level) {
         if (level < 1 || level > 3) {
             throw new IllegalArgumentException("Emergency level must be between 1 and 3");
         }
-        this.isEmergency = (level > 1);
+        this.emergencyLevel = level;
         setPriority(Thread.MIN_PRIORITY + level - 1);
     }
 }
\ No newline at end of file
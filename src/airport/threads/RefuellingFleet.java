@@ -0,0 +1,110 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.threads;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.utils.LatencyHistogram;
+import airport.utils.Ticket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+// N refuelling trucks serving one shared FIFO dispatch queue.
+// Planes enqueue with a lock-free offer and never wait for a refuel in progress;
+// the semaphore counts queued jobs so idle trucks park until there is work.
+public final class RefuellingFleet {
+    private final ConcurrentLinkedQueue<RefuelJob> dispatchQueue;
+    private final Semaphore jobsQueued;
+    private final List<RefuellingTruck> trucks;
+    private final LatencyHistogram queueWait; // Request until a truck picks the job up, microseconds
+    private volatile boolean isRunning;
+
+    // A queued refuel and the ticket the plane waits on
+    static class RefuelJob {
+        final int planeId;
+        final Ticket<Void> ticket = new Ticket<>();
+
+        RefuelJob(int planeId) {
+            this.planeId = planeId;
+        }
+    }
+
+    public RefuellingFleet(int truckCount) {
+        if (truckCount < 1) {
+            throw new IllegalArgumentException("At least one refuelling truck is required");
+        }
+        this.dispatchQueue = new ConcurrentLinkedQueue<>();
+        this.jobsQueued = new Semaphore(0);
+        this.queueWait = new LatencyHistogram();
+        this.isRunning = true;
+        List<RefuellingTruck> fleet = new ArrayList<>();
+        for (int i = 1; i <= truckCount; i++) {
+            fleet.add(new RefuellingTruck(i, this));
+        }
+        this.trucks = Collections.unmodifiableList(fleet);
+    }
+
+    public void start() {
+        for (RefuellingTruck truck : trucks) {
+            truck.start();
+        }
+    }
+
+    public Ticket<Void> requestRefuelling(int planeId) {
+        RefuelJob job = new RefuelJob(planeId);
+        dispatchQueue.offer(job);
+        jobsQueued.release();
+        return job.ticket;
+    }
+
+    // Next job for a truck, blocking while the queue is empty; null once the fleet shuts down
+    RefuelJob takeJob() throws InterruptedException {
+        while (isRunning) {
+            jobsQueued.acquire();
+            RefuelJob job = dispatchQueue.poll();
+            if (job != null) {
+                queueWait.record((System.nanoTime() - job.ticket.getCreatedNanos()) / 1000);
+                return job;
+            }
+        }
+        return null;
+    }
+
+    public void shutdown() {
+        isRunning = false;
+        jobsQueued.release(trucks.size()); // Wake idle trucks so they see the flag
+    }
+
+    public List<RefuellingTruck> getTrucks() {
+        return trucks;
+    }
+
+    // Jobs not yet picked up by a truck; O(1), unlike the queue's size()
+    public int getQueueLength() {
+        return isRunning ? jobsQueued.availablePermits() : 0;
+    }
+
+    public String getUtilizationSummary(long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Refuelling Fleet (").append(trucks.size()).append(" trucks) ---\n");
+        for (RefuellingTruck truck : trucks) {
+            double busy = elapsedNanos > 0 ? 100.0 * truck.getBusyNanos() / elapsedNanos : 0;
+            sb.append(truck.getName()).append(": ")
+              .append(String.format("%.1f%% busy", busy))
+              .append(", ").append(truck.getPlanesRefuelled()).append(" planes\n");
+        }
+        if (queueWait.getCount() > 0) {
+            sb.append(String.format("Queue wait: avg %.3f s, P99 %.3f s%n",
+                    queueWait.getMean() / 1_000_000.0, queueWait.getPercentile(99) / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+}
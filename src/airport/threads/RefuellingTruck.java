@@ -9,63 +9,80 @@ package airport.threads;
  * @author junyo
  */
 
+import airport.jfr.GroundServiceEvent;
+import airport.models.PlaneIds;
+import airport.recording.EventRecorder;
+import airport.recording.EventType;
 import airport.utils.Logger;
-import java.util.concurrent.Semaphore;
-import java.util.Queue;
-import java.util.LinkedList;
+import airport.utils.Statistics;
+import airport.utils.TimeScale;
+import java.util.concurrent.atomic.LongAdder;
 
-public class RefuellingTruck extends Thread {
-    private static final int REFUELLING_TIME = 4000; // 4 seconds to refuel
-    private final Semaphore semaphore;
-    private final Queue<String> refuellingQueue;
-    private volatile boolean isRunning;
+public class RefuellingTruck extends ManagedThread {
+    public static final int REFUELLING_TIME = 4000; // 4 seconds to refuel
+    private final int truckNumber;
+    private final RefuellingFleet fleet;
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder planesRefuelled = new LongAdder();
 
-    public RefuellingTruck() {
-        super("RefuellingTruck");
-        this.semaphore = new Semaphore(1, true); // Fair semaphore with 1 permit
-        this.refuellingQueue = new LinkedList<>();
-        this.isRunning = true;
+    RefuellingTruck(int truckNumber, RefuellingFleet fleet) {
+        super("RefuellingTruck-" + truckNumber);
+        this.truckNumber = truckNumber;
+        this.fleet = fleet;
     }
 
     @Override
     public void run() {
-        while (isRunning) {
-            try {
-                synchronized (refuellingQueue) {
-                    String planeName = refuellingQueue.peek();
-                    if (planeName != null) {
-                        Logger.log("Starting to refuel " + planeName);
-                        Thread.sleep(REFUELLING_TIME);
-                        Logger.log("Finished refuelling " + planeName);
-                        refuellingQueue.poll();
-                        synchronized (planeName.intern()) {
-                            planeName.intern().notifyAll();
-                        }
-                    }
+        try {
+            RefuellingFleet.RefuelJob job;
+            // Jobs are taken from the fleet's shared queue, refuelling happens outside any lock
+            while ((job = fleet.takeJob()) != null) {
+                try {
+                    refuel(job);
+                } catch (InterruptedException | RuntimeException e) {
+                    job.ticket.fail(e); // The plane must not wait for a refuel that is never finished
+                    throw e;
                 }
-                Thread.sleep(100); // Small delay if no planes to refuel
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    public void requestRefuelling(String planeName) throws InterruptedException {
-        semaphore.acquire(); // Wait for truck availability
-        synchronized (refuellingQueue) {
-            refuellingQueue.offer(planeName);
+    private void refuel(RefuellingFleet.RefuelJob job) throws InterruptedException {
+        long start = System.nanoTime();
+        int planeId = job.planeId;
+        Logger.log("Starting to refuel " + PlaneIds.name(planeId));
+        EventRecorder.record(EventType.REFUEL_STARTED, planeId, truckNumber);
+        GroundServiceEvent serviceEvent = new GroundServiceEvent();
+        serviceEvent.begin();
+        TimeScale.sleep(REFUELLING_TIME);
+        serviceEvent.end();
+        if (serviceEvent.shouldCommit()) {
+            serviceEvent.service = Statistics.Service.REFUELLING.getLabel();
+            serviceEvent.plane = PlaneIds.name(planeId);
+            serviceEvent.doneBy = getName();
+            serviceEvent.queueWait = start - job.ticket.getCreatedNanos();
+            serviceEvent.commit();
         }
-        
-        // Wait for refuelling to complete
-        synchronized (planeName.intern()) {
-            planeName.intern().wait();
-        }
-        
-        semaphore.release();
+        Logger.log("Finished refuelling " + PlaneIds.name(planeId));
+        EventRecorder.record(EventType.REFUEL_FINISHED, planeId, truckNumber);
+        long end = System.nanoTime();
+        busyNanos.add(end - start);
+        planesRefuelled.increment();
+        Statistics.recordServiceWait(Statistics.Service.REFUELLING, end - job.ticket.getCreatedNanos());
+        job.ticket.complete(null);
+    }
+
+    public int getTruckNumber() {
+        return truckNumber;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos.sum();
     }
 
-    public void shutdown() {
-        isRunning = false;
+    public long getPlanesRefuelled() {
+        return planesRefuelled.sum();
     }
 }
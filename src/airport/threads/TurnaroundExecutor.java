@@ -0,0 +1,180 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.threads;
+
+/**
+ *
+ * @author junyo
+ */
+
+import airport.jfr.TurnaroundTaskEvent;
+import airport.models.GroundTask;
+import airport.models.PlaneIds;
+import airport.models.TurnaroundPlan;
+import airport.recording.EventRecorder;
+import airport.recording.EventType;
+import airport.utils.ExecutionMode;
+import airport.utils.Logger;
+import airport.utils.Statistics;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+// Runs one plane's turnaround according to a TurnaroundPlan. Every task starts as soon as
+// all of its dependencies are done, on the shared executor of the ExecutionMode (the thread takes
+// the plane's name while it runs the task), so tasks the plan does not order run in parallel.
+// Afterwards the critical path is logged and recorded.
+public class TurnaroundExecutor {
+    // The work behind one task for one plane, may block until a crew or truck is done
+    public interface Action {
+        void run() throws InterruptedException;
+    }
+
+    private final int planeId;
+    private final String planeName; // Task threads are named after the plane
+    private final TurnaroundPlan plan;
+    private final Map<GroundTask, Action> actions;
+    private final Executor executor;
+    private final Set<Thread> running = new HashSet<>(); // Guarded by this
+    private boolean cancelled; // Guarded by this
+    private final long[] startNanos = new long[GroundTask.values().length];
+    private final long[] endNanos = new long[GroundTask.values().length];
+
+    public TurnaroundExecutor(int planeId, TurnaroundPlan plan, Map<GroundTask, Action> actions) {
+        this(planeId, plan, actions, ExecutionMode.current().taskExecutor());
+    }
+
+    public TurnaroundExecutor(int planeId, TurnaroundPlan plan, Map<GroundTask, Action> actions, Executor executor) {
+        this.planeId = planeId;
+        this.planeName = PlaneIds.name(planeId);
+        for (GroundTask task : plan.getTasks()) {
+            if (!actions.containsKey(task)) {
+                throw new IllegalArgumentException("No action for " + task + " in the turnaround of " + planeName);
+            }
+        }
+        this.plan = plan;
+        this.actions = new EnumMap<>(actions);
+        this.executor = executor;
+    }
+
+    // Blocks until every task has finished. If interrupted, no task is still running on return.
+    public void run() throws InterruptedException {
+        Map<GroundTask, CompletableFuture<Void>> futures = new EnumMap<>(GroundTask.class);
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        long turnaroundStart = System.nanoTime();
+
+        for (GroundTask task : plan.getTasks()) {
+            CompletableFuture<?>[] before = plan.getDependencies(task).stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture<?>[]::new);
+            CompletableFuture<Void> ready = before.length == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.allOf(before);
+            CompletableFuture<Void> done = ready.thenRunAsync(() -> runTask(task), executor);
+            futures.put(task, done);
+            all.add(done);
+        }
+
+        try {
+            CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException e) {
+            cancel(all);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw new IllegalStateException("Turnaround of " + planeName + " failed", cause);
+        }
+
+        List<GroundTask> criticalPath = plan.criticalPath(endNanos);
+        long turnaroundNanos = endNanos[criticalPath.get(criticalPath.size() - 1).ordinal()] - turnaroundStart;
+        Logger.log(String.format("Turnaround completed in %.1f s, critical path: %s",
+                turnaroundNanos / 1e9, describeWithDurations(criticalPath)));
+        Statistics.recordTurnaround(turnaroundNanos, TurnaroundPlan.describe(criticalPath));
+    }
+
+    // Tasks not started yet never start, running ones are interrupted and waited for
+    private void cancel(List<CompletableFuture<Void>> all) {
+        for (CompletableFuture<Void> future : all) {
+            future.cancel(false);
+        }
+        synchronized (this) {
+            cancelled = true;
+            for (Thread thread : running) {
+                thread.interrupt();
+            }
+            boolean interrupted = false;
+            while (!running.isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runTask(GroundTask task) {
+        Thread current = Thread.currentThread();
+        synchronized (this) {
+            if (cancelled) {
+                throw new CompletionException(new InterruptedException());
+            }
+            running.add(current);
+        }
+        String threadName = current.getName();
+        current.setName(planeName); // Log lines carry the plane's name
+        try {
+            startNanos[task.ordinal()] = System.nanoTime();
+            EventRecorder.record(EventType.TASK_STARTED, planeId, task.ordinal());
+            TurnaroundTaskEvent taskEvent = new TurnaroundTaskEvent();
+            taskEvent.begin();
+            try {
+                actions.get(task).run();
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+            taskEvent.end();
+            if (taskEvent.shouldCommit()) {
+                taskEvent.plane = planeName;
+                taskEvent.task = task.getLabel();
+                taskEvent.commit();
+            }
+            endNanos[task.ordinal()] = System.nanoTime();
+            EventRecorder.record(EventType.TASK_FINISHED, planeId, task.ordinal());
+        } finally {
+            current.setName(threadName);
+            synchronized (this) {
+                running.remove(current);
+                notifyAll();
+            }
+        }
+    }
+
+    // E.g. "Disembark 3.0 s > Cleaning 3.0 s > Embark 3.0 s"
+    private String describeWithDurations(List<GroundTask> path) {
+        StringBuilder sb = new StringBuilder();
+        for (GroundTask task : path) {
+            if (sb.length() > 0) {
+                sb.append(" > ");
+            }
+            sb.append(task.getLabel()).append(' ')
+              .append(String.format("%.1f s", (endNanos[task.ordinal()] - startNanos[task.ordinal()]) / 1e9));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.utils;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// How planes, passenger groups and gate crews get their threads.
+// PLATFORM uses one OS thread each (the original behaviour), VIRTUAL uses virtual threads.
+// Turnaround tasks share one executor per mode: a virtual thread per task, or a bounded pool of
+// platform threads (-Dairport.taskThreads, default 32).
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public static final int DEFAULT_TASK_THREADS = 32;
+
+    private static volatile ExecutionMode current = PLATFORM;
+    private ExecutorService taskExecutor; // Guarded by this, created on first use
+
+    public static ExecutionMode current() {
+        return current;
+    }
+
+    public static void setCurrent(ExecutionMode mode) {
+        current = mode;
+    }
+
+    public Thread newThread(String name, Runnable task) {
+        if (this == VIRTUAL) {
+            return Thread.ofVirtual().name(name).unstarted(task);
+        }
+        return new Thread(task, name);
+    }
+
+    public synchronized ExecutorService taskExecutor() {
+        if (taskExecutor == null) {
+            if (this == VIRTUAL) {
+                taskExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("GroundTask-", 1).factory());
+            } else {
+                // Daemon threads that go away when idle, so the pool never keeps the JVM alive
+                int threads = Integer.getInteger("airport.taskThreads", DEFAULT_TASK_THREADS);
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), Thread.ofPlatform().name("GroundTask-", 1).daemon().factory());
+                pool.allowCoreThreadTimeOut(true);
+                taskExecutor = pool;
+            }
+        }
+        return taskExecutor;
+    }
+}
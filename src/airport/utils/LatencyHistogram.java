@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.utils;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Concurrent log-bucketed histogram (HDR style) with fixed memory.
+// Each power of two is split into 32 linear sub-buckets, so any recorded value is
+// reported within ~3%. Bucket counts are striped by thread so recording threads rarely
+// touch the same cache line; readers merge the stripes.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 32
+    private static final int MAX_EXPONENT = 62;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicLongArray[] stripes;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        this(STRIPES);
+    }
+
+    // Fewer stripes for histograms kept per object (e.g. per lock), each stripe is ~15 KB
+    public LatencyHistogram(int stripeCount) {
+        if (stripeCount < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two: " + stripeCount);
+        }
+        stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    // Power of two, about two stripes per CPU, at most 16
+    private static int stripeCount() {
+        int wanted = Math.min(Runtime.getRuntime().availableProcessors() * 2, 16);
+        int stripeCount = 1;
+        while (stripeCount < wanted) {
+            stripeCount <<= 1;
+        }
+        return stripeCount;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int stripe = (int) Thread.currentThread().threadId() & (stripes.length - 1);
+        stripes[stripe].incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    // Values below 32 get their own bucket, above that 32 buckets per power of two
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    // Middle of the value range covered by a bucket
+    static long bucketValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    // Value at the given percentile (0-100), clamped to the recorded min/max
+    public long getPercentile(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            for (AtomicLongArray stripe : stripes) {
+                seen += stripe.get(i);
+            }
+            if (seen >= rank) {
+                return Math.max(getMin(), Math.min(getMax(), bucketValue(i)));
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.utils;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+// Opt-in lock instrumentation (-Dairport.lockprofile=true): acquire-wait and hold time per lock,
+// and which threads held each lock the longest. Locks register on creation and get null when
+// profiling is off, so every hook below reduces to a constant check that the JIT removes.
+//
+//     long requested = LockProfiler.now();
+//     synchronized (lock) {
+//         long acquired = LockProfiler.acquired(stats, requested);
+//         ...
+//         LockProfiler.released(stats, acquired);
+//     }
+public class LockProfiler {
+    public static final boolean ENABLED = Boolean.getBoolean("airport.lockprofile");
+
+    private static final long CONTENDED_NANOS = 1_000; // A wait longer than this counts as contended
+    private static final int REPORTED_LOCKS = 20;
+    private static final int REPORTED_HOLDERS = 3;
+    private static final int MAX_HOLDERS = 256; // Per lock; plane threads come and go, so later ones are pooled
+    private static final String OTHER_HOLDERS = "(other threads)";
+
+    private static final List<LockStats> locks = new CopyOnWriteArrayList<>();
+
+    // Wait and hold histograms (nanoseconds) of one lock
+    public static class LockStats {
+        private final String name;
+        private final LatencyHistogram waits = new LatencyHistogram(1);
+        private final LatencyHistogram holds = new LatencyHistogram(1);
+        private final LongAdder contended = new LongAdder();
+        private final LongAdder totalWait = new LongAdder();
+        private final Map<String, LongAdder> holdByThread = new ConcurrentHashMap<>();
+
+        LockStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // Stats for a new lock, or null when profiling is off
+    public static LockStats register(String name) {
+        if (!ENABLED) {
+            return null;
+        }
+        LockStats stats = new LockStats(name);
+        locks.add(stats);
+        return stats;
+    }
+
+    public static long now() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    // Right after the lock was obtained; returns the acquire time to pass to released()
+    public static long acquired(LockStats stats, long requested) {
+        if (stats == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long wait = now - requested;
+        stats.waits.record(wait);
+        stats.totalWait.add(wait);
+        if (wait > CONTENDED_NANOS) {
+            stats.contended.increment();
+        }
+        return now;
+    }
+
+    // Right before the lock is given up
+    public static void released(LockStats stats, long acquired) {
+        if (stats == null) {
+            return;
+        }
+        long hold = System.nanoTime() - acquired;
+        stats.holds.record(hold);
+        String holder = Thread.currentThread().getName();
+        LongAdder total = stats.holdByThread.get(holder);
+        if (total == null) {
+            if (stats.holdByThread.size() >= MAX_HOLDERS) {
+                holder = OTHER_HOLDERS;
+            }
+            total = stats.holdByThread.computeIfAbsent(holder, name -> new LongAdder());
+        }
+        total.add(hold);
+    }
+
+    // Locks with the most total wait first
+    public static String getReport() {
+        if (!ENABLED) {
+            return "Lock profiling is off (-Dairport.lockprofile=true to enable)";
+        }
+        List<LockStats> sorted = new ArrayList<>(locks);
+        sorted.removeIf(stats -> stats.waits.getCount() == 0);
+        sorted.sort(Comparator.comparingLong((LockStats stats) -> stats.totalWait.sum()).reversed());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("===== Lock Contention (us) =====\n");
+        for (LockStats stats : sorted.subList(0, Math.min(REPORTED_LOCKS, sorted.size()))) {
+            long acquisitions = stats.waits.getCount();
+            sb.append(stats.name).append(": ").append(acquisitions).append(" acquisitions, ")
+              .append(String.format("%.1f%% contended, total wait %.3f s%n",
+                      100.0 * stats.contended.sum() / acquisitions, stats.totalWait.sum() / 1e9));
+            appendHistogram(sb, "wait", stats.waits);
+            appendHistogram(sb, "hold", stats.holds);
+            sb.append("  top holders:");
+            stats.holdByThread.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.comparingLong(LongAdder::sum).reversed()))
+                    .limit(REPORTED_HOLDERS)
+                    .forEach(entry -> sb.append(String.format(" %s %.3f s", entry.getKey(), entry.getValue().sum() / 1e9)));
+            sb.append("\n");
+        }
+        if (sorted.size() > REPORTED_LOCKS) {
+            sb.append("(").append(sorted.size() - REPORTED_LOCKS).append(" more locks with less waiting)\n");
+        }
+        sb.append("================================");
+        return sb.toString();
+    }
+
+    private static void appendHistogram(StringBuilder sb, String label, LatencyHistogram histogram) {
+        sb.append(String.format("  %s: P50 %.1f | P90 %.1f | P99 %.1f | P99.9 %.1f | max %.1f%n", label,
+                histogram.getPercentile(50) / 1000.0, histogram.getPercentile(90) / 1000.0,
+                histogram.getPercentile(99) / 1000.0, histogram.getPercentile(99.9) / 1000.0,
+                histogram.getMax() / 1000.0));
+    }
+}
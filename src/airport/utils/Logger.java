@@ -9,14 +9,259 @@ package airport.utils;
  * @author junyo
  */
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
+// Asynchronous logger. Callers only claim a slot in a lock-free ring buffer and copy the
+// message in; a background writer thread formats records in batches and writes them to a
+// buffered NIO channel (stdout by default). Nothing on the calling side takes a lock.
 public class Logger {
-    private static final SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
+    public enum Level { DEBUG, INFO, WARN, ERROR }
 
-    public static synchronized void log(String message) {
-        String time = sdf.format(new Date());
-        System.out.println("[" + time + "] " + Thread.currentThread().getName() + " : " + message);
+    // What a caller does when the ring buffer is full
+    public enum OverflowPolicy {
+        BLOCK, // Back-pressure: wait for the writer to make room (nothing is lost)
+        DROP   // Discard the record and count it
+    }
+
+    private static final int CAPACITY = 1 << 16; // Must be a power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final int BATCH_SIZE = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Ring buffer slots, reused for the lifetime of the program
+    private static final class Record {
+        long timeMillis;
+        Level level;
+        String threadName;
+        String message;
+    }
+
+    private static final Record[] ring = new Record[CAPACITY];
+    // Sequence per slot: == position when free for that position, == position + 1 when published
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong tail = new AtomicLong(0); // Next position producers claim
+    private static volatile long head = 0;                     // Next position the writer reads
+    private static volatile long written = 0;                  // Everything before this is on the channel
+    private static final LongAdder dropped = new LongAdder();
+
+    private static volatile Level threshold = Level.INFO;
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private static volatile WritableByteChannel output =
+        new FileOutputStream(FileDescriptor.out).getChannel();
+    private static volatile boolean writerSleeping = false;
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new Record();
+            sequences.set(i, i);
+        }
+        writer = new Thread(Logger::writeLoop, "Logger-Writer");
+        writer.setDaemon(true);
+        writer.start();
+        // Make sure queued lines reach the console before the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "Logger-Flush"));
+    }
+
+    // ===== Configuration =====
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        overflowPolicy = policy;
+    }
+
+    // Redirect output (e.g. to a file or a discarding channel in benchmarks); flushes first
+    public static void setOutput(WritableByteChannel channel) {
+        flush();
+        output = channel;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold.ordinal();
+    }
+
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // ===== Logging =====
+    public static void log(String message) {
+        log(Level.INFO, message);
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message);
+    }
+
+    public static void log(Level level, String message) {
+        // Disabled levels return before touching the clock, the thread or the ring.
+        // Callers building expensive messages should guard with isEnabled().
+        if (level.ordinal() < threshold.ordinal()) {
+            return;
+        }
+        long pos;
+        while ((pos = claim()) < 0) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.unpark(writer);
+            Thread.yield(); // Give the writer the CPU instead of spinning
+        }
+        Record record = ring[(int) (pos & MASK)];
+        record.timeMillis = System.currentTimeMillis();
+        record.level = level;
+        record.threadName = Thread.currentThread().getName();
+        record.message = message;
+        sequences.set((int) (pos & MASK), pos + 1); // Publish (volatile, pairs with the writerSleeping check)
+        if (writerSleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Claims the next free position, or returns -1 if the ring is full
+    private static long claim() {
+        long pos = tail.get();
+        while (true) {
+            long seq = sequences.get((int) (pos & MASK));
+            long diff = seq - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    return pos;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return -1; // Writer has not consumed this slot from the previous lap yet
+            } else {
+                pos = tail.get(); // Another producer took it
+            }
+        }
+    }
+
+    // Blocks until everything logged before this call has been written
+    public static void flush() {
+        long target = tail.get();
+        while (written < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    // ===== Writer thread =====
+    private static void writeLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        StringBuilder text = new StringBuilder(BATCH_SIZE * 64);
+        TimestampCache timestamps = new TimestampCache();
+
+        while (true) {
+            int count = drain(text, timestamps);
+            if (count == 0) {
+                writerSleeping = true;
+                if (sequences.get((int) (head & MASK)) != head + 1) { // Re-check after announcing
+                    LockSupport.parkNanos(10_000_000);
+                }
+                writerSleeping = false;
+                continue;
+            }
+            write(text, buffer, encoder);
+            written = head;
+        }
+    }
+
+    // Formats up to BATCH_SIZE published records into text and frees their slots
+    private static int drain(StringBuilder text, TimestampCache timestamps) {
+        text.setLength(0);
+        long pos = head;
+        int count = 0;
+        while (count < BATCH_SIZE) {
+            int index = (int) (pos & MASK);
+            if (sequences.get(index) != pos + 1) {
+                break; // Not published yet
+            }
+            Record record = ring[index];
+            text.append('[').append(timestamps.format(record.timeMillis)).append("] ")
+                .append(record.threadName).append(" : ");
+            if (record.level != Level.INFO) {
+                text.append(record.level).append(": ");
+            }
+            text.append(record.message).append('\n');
+            record.threadName = null;
+            record.message = null;
+            sequences.lazySet(index, pos + CAPACITY); // Free for the next lap
+            pos++;
+            count++;
+        }
+        head = pos;
+        return count;
+    }
+
+    private static void write(StringBuilder text, ByteBuffer buffer, CharsetEncoder encoder) {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        try {
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    writeBuffer(buffer);
+                } else {
+                    break;
+                }
+            }
+            writeBuffer(buffer);
+        } catch (IOException e) {
+            buffer.clear(); // Output is gone (e.g. closed pipe), keep draining so callers never stall
+        }
+    }
+
+    private static void writeBuffer(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        WritableByteChannel channel = output;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // "HH:mm:ss" only changes once a second, so it is formatted once per second. Writer thread only.
+    private static final class TimestampCache {
+        private final ZoneId zone = ZoneId.systemDefault();
+        private long cachedSecond = Long.MIN_VALUE;
+        private String cachedText = "";
+
+        String format(long timeMillis) {
+            long second = Math.floorDiv(timeMillis, 1000);
+            if (second != cachedSecond) {
+                LocalTime time = LocalTime.ofInstant(Instant.ofEpochSecond(second), zone);
+                cachedText = String.format("%02d:%02d:%02d", time.getHour(), time.getMinute(), time.getSecond());
+                cachedSecond = second;
+            }
+            return cachedText;
+        }
     }
 }
@@ -9,93 +9,176 @@ package airport.utils;
  * @author junyo
  */
 
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Statistics {
+    // Ground services whose waiting time is tracked
+    public enum Service {
+        REFUELLING("Refuelling"),
+        CLEANING("Cleaning"),
+        SUPPLY("Supply");
+
+        private final String label;
+
+        Service(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
     // ===== Plane counters =====
-    private static final AtomicInteger totalPlanes = new AtomicInteger(0);
-    private static final AtomicInteger planesLanded = new AtomicInteger(0);
-    private static final AtomicInteger planesDeparted = new AtomicInteger(0);
-
-    // ===== Waiting times (ms) =====
-    private static final AtomicLong totalLandingWaitTime = new AtomicLong(0);
-    private static final AtomicLong totalTakeoffWaitTime = new AtomicLong(0);
-    private static final AtomicLong minLandingWaitTime = new AtomicLong(Long.MAX_VALUE);
-    private static final AtomicLong maxLandingWaitTime = new AtomicLong(0);
-    private static final AtomicLong minTakeoffWaitTime = new AtomicLong(Long.MAX_VALUE);
-    private static final AtomicLong maxTakeoffWaitTime = new AtomicLong(0);
+    private static final LongAdder totalPlanes = new LongAdder();
+
+    // ===== Waiting times (histograms in microseconds) =====
+    // Landed / departed counts are the histogram counts
+    private static final LatencyHistogram landingWait = new LatencyHistogram();
+    private static final LatencyHistogram takeoffWait = new LatencyHistogram();
+    private static final Map<Service, LatencyHistogram> serviceWait = new EnumMap<>(Service.class);
+
+    // ===== Turnarounds (microseconds) and how often each critical path occurred =====
+    private static final LatencyHistogram turnaround = new LatencyHistogram();
+    private static final Map<String, LongAdder> criticalPaths = new ConcurrentHashMap<>();
+
+    // ===== Planes cleared ahead of their gate that had to hold at the stand (microseconds) =====
+    private static final LatencyHistogram standHold = new LatencyHistogram();
+
+    // ===== ATC request-to-grant latency (microseconds) =====
+    private static final LatencyHistogram grantLatency = new LatencyHistogram();
+
+    // ===== Ticket handoffs (microseconds, only handoffs that had to wait) =====
+    private static final LongAdder totalHandoffs = new LongAdder();
+    private static final LongAdder totalWakeups = new LongAdder();
+    private static final LatencyHistogram handoffLatency = new LatencyHistogram();
 
     // ===== Passenger counts =====
-    private static final AtomicInteger totalPassengersBoarded = new AtomicInteger(0);
-    private static final AtomicInteger totalPassengersDisembarked = new AtomicInteger(0);
+    private static final LongAdder totalPassengersBoarded = new LongAdder();
+    private static final LongAdder totalPassengersDisembarked = new LongAdder();
+
+    static {
+        for (Service service : Service.values()) {
+            serviceWait.put(service, new LatencyHistogram());
+        }
+    }
 
     // ===== Register plane =====
     public static void registerPlane() {
-        totalPlanes.incrementAndGet();
+        totalPlanes.increment();
     }
 
     // ===== Landing statistics =====
     public static void recordLandingWait(long waitMillis) {
-        planesLanded.incrementAndGet();
-        totalLandingWaitTime.addAndGet(waitMillis);
-        updateMin(minLandingWaitTime, waitMillis);
-        updateMax(maxLandingWaitTime, waitMillis);
+        landingWait.record(waitMillis * 1000);
     }
 
     // ===== Takeoff statistics =====
     public static void recordTakeoffWait(long waitMillis) {
-        planesDeparted.incrementAndGet();
-        totalTakeoffWaitTime.addAndGet(waitMillis);
-        updateMin(minTakeoffWaitTime, waitMillis);
-        updateMax(maxTakeoffWaitTime, waitMillis);
+        takeoffWait.record(waitMillis * 1000);
     }
 
-    // ===== Passenger statistics =====
-    public static void recordPassengersBoarded(int count) {
-        totalPassengersBoarded.addAndGet(count);
+    public static long getPlanesDeparted() {
+        return takeoffWait.getCount();
     }
 
-    public static void recordPassengersDisembarked(int count) {
-        totalPassengersDisembarked.addAndGet(count);
+    // ===== Ground service statistics =====
+    public static void recordServiceWait(Service service, long waitNanos) {
+        serviceWait.get(service).record(waitNanos / 1000);
     }
 
-    // ===== Helper methods for min/max =====
-    private static void updateMin(AtomicLong currentMin, long newValue) {
-        currentMin.getAndUpdate(prev -> Math.min(prev, newValue));
+    // ===== Turnaround statistics =====
+    public static void recordTurnaround(long turnaroundNanos, String criticalPath) {
+        turnaround.record(turnaroundNanos / 1000);
+        criticalPaths.computeIfAbsent(criticalPath, path -> new LongAdder()).increment();
     }
 
-    private static void updateMax(AtomicLong currentMax, long newValue) {
-        currentMax.getAndUpdate(prev -> Math.max(prev, newValue));
+    // ===== Stand hold statistics =====
+    public static void recordStandHold(long holdNanos) {
+        standHold.record(holdNanos / 1000);
+    }
+
+    // ===== ATC grant statistics =====
+    public static void recordGrantLatency(long latencyNanos) {
+        grantLatency.record(latencyNanos / 1000);
+    }
+
+    public static LatencyHistogram getGrantLatency() {
+        return grantLatency;
+    }
+
+    // ===== Handoff statistics =====
+    public static void recordHandoff(long latencyNanos, int wakeups) {
+        totalHandoffs.increment();
+        if (wakeups > 0) {
+            totalWakeups.add(wakeups);
+            handoffLatency.record(latencyNanos / 1000);
+        }
+    }
+
+    // ===== Passenger statistics =====
+    public static void recordPassengersBoarded(int count) {
+        totalPassengersBoarded.add(count);
+    }
+
+    public static void recordPassengersDisembarked(int count) {
+        totalPassengersDisembarked.add(count);
     }
 
     // ===== Get summary string =====
     public static String getSummary() {
         StringBuilder sb = new StringBuilder();
         sb.append("\n===== Airport Statistics =====\n");
-        sb.append("Total Planes Registered: ").append(totalPlanes.get()).append("\n");
-        sb.append("Planes Landed: ").append(planesLanded.get()).append("\n");
-        sb.append("Planes Departed: ").append(planesDeparted.get()).append("\n");
-        sb.append("Total Passengers Boarded: ").append(totalPassengersBoarded.get()).append("\n");
-        sb.append("Total Passengers Disembarked: ").append(totalPassengersDisembarked.get()).append("\n");
-
-        if (planesLanded.get() > 0) {
-            double avgLanding = totalLandingWaitTime.get() / 1000.0 / planesLanded.get();
-            sb.append("\n--- Landing Wait Times (seconds) ---\n");
-            sb.append("Min: ").append(String.format("%.2f", minLandingWaitTime.get() / 1000.0)).append("\n");
-            sb.append("Max: ").append(String.format("%.2f", maxLandingWaitTime.get() / 1000.0)).append("\n");
-            sb.append("Avg: ").append(String.format("%.2f", avgLanding)).append("\n");
+        sb.append("Total Planes Registered: ").append(totalPlanes.sum()).append("\n");
+        sb.append("Planes Landed: ").append(landingWait.getCount()).append("\n");
+        sb.append("Planes Departed: ").append(takeoffWait.getCount()).append("\n");
+        sb.append("Total Passengers Boarded: ").append(totalPassengersBoarded.sum()).append("\n");
+        sb.append("Total Passengers Disembarked: ").append(totalPassengersDisembarked.sum()).append("\n");
+
+        appendLatency(sb, "Landing Wait Times (seconds)", landingWait, 1_000_000.0, "%.2f");
+        appendLatency(sb, "Takeoff Wait Times (seconds)", takeoffWait, 1_000_000.0, "%.2f");
+        for (Service service : Service.values()) {
+            appendLatency(sb, service.label + " Wait Times (seconds)", serviceWait.get(service), 1_000_000.0, "%.2f");
         }
-
-        if (planesDeparted.get() > 0) {
-            double avgTakeoff = totalTakeoffWaitTime.get() / 1000.0 / planesDeparted.get();
-            sb.append("\n--- Takeoff Wait Times (seconds) ---\n");
-            sb.append("Min: ").append(String.format("%.2f", minTakeoffWaitTime.get() / 1000.0)).append("\n");
-            sb.append("Max: ").append(String.format("%.2f", maxTakeoffWaitTime.get() / 1000.0)).append("\n");
-            sb.append("Avg: ").append(String.format("%.2f", avgTakeoff)).append("\n");
+        appendLatency(sb, "Turnaround Times (seconds)", turnaround, 1_000_000.0, "%.2f");
+        if (!criticalPaths.isEmpty()) {
+            sb.append("Critical paths:\n");
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(criticalPaths).entrySet()) {
+                sb.append("  ").append(entry.getKey()).append(": ").append(entry.getValue().sum()).append("\n");
+            }
+        }
+        appendLatency(sb, "Stand Hold Times (seconds)", standHold, 1_000_000.0, "%.2f");
+        appendLatency(sb, "ATC Grant Latency (ms)", grantLatency, 1000.0, "%.3f");
+
+        if (totalHandoffs.sum() > 0) {
+            sb.append("\n--- Ticket Handoffs ---\n");
+            sb.append("Handoffs: ").append(totalHandoffs.sum())
+              .append(" (").append(handoffLatency.getCount()).append(" had to wait)\n");
+            sb.append("Wakeups: ").append(totalWakeups.sum()).append("\n");
+            appendLatency(sb, "Handoff Latency (us)", handoffLatency, 1.0, "%.1f");
         }
 
         sb.append("==============================\n");
         return sb.toString();
     }
+
+    // Min/Max/Avg as before, followed by the tail percentiles
+    private static void appendLatency(StringBuilder sb, String title, LatencyHistogram histogram,
+                                      double divisor, String format) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        sb.append("\n--- ").append(title).append(" ---\n");
+        sb.append("Min: ").append(String.format(format, histogram.getMin() / divisor)).append("\n");
+        sb.append("Max: ").append(String.format(format, histogram.getMax() / divisor)).append("\n");
+        sb.append("Avg: ").append(String.format(format, histogram.getMean() / divisor)).append("\n");
+        sb.append("P50: ").append(String.format(format, histogram.getPercentile(50) / divisor))
+          .append(" | P90: ").append(String.format(format, histogram.getPercentile(90) / divisor))
+          .append(" | P99: ").append(String.format(format, histogram.getPercentile(99) / divisor))
+          .append(" | P99.9: ").append(String.format(format, histogram.getPercentile(99.9) / divisor)).append("\n");
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.utils;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One-shot completion handle handed out by ATC and the ground services.
+// Each ticket has its own lock, so a plane only wakes for its own grant or task,
+// and completing before the plane starts waiting is not lost. A ticket that fails wakes the
+// waiter as well, await() then throws.
+// Uses a Lock/Condition rather than wait/notify so waiting virtual threads do not pin their carrier.
+public class Ticket<T> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition done = lock.newCondition();
+    private final long createdNanos = System.nanoTime(); // When the request was made
+    private boolean completed;
+    private T value;
+    private Throwable failure; // Set instead of the value when the work could not be done
+    private long completedNanos;
+
+    public void complete(T value) {
+        finish(value, null);
+    }
+
+    // E.g. the crew doing the work was interrupted
+    public void fail(Throwable cause) {
+        finish(null, cause);
+    }
+
+    private void finish(T value, Throwable cause) {
+        lock.lock();
+        try {
+            if (completed) {
+                throw new IllegalStateException("Ticket already completed");
+            }
+            this.value = value;
+            this.failure = cause;
+            this.completedNanos = System.nanoTime();
+            this.completed = true;
+            done.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public T await() throws InterruptedException {
+        int wakeups = 0;
+        T result;
+        Throwable cause;
+        long completedAt;
+        lock.lock();
+        try {
+            while (!completed) {
+                done.await();
+                wakeups++;
+            }
+            result = value;
+            cause = failure;
+            completedAt = completedNanos;
+        } finally {
+            lock.unlock();
+        }
+        if (cause != null) {
+            throw new IllegalStateException("Request failed: " + cause, cause);
+        }
+        // Handoff latency only makes sense if we actually had to be woken up
+        if (wakeups > 0) {
+            Statistics.recordHandoff(System.nanoTime() - completedAt, wakeups);
+        } else {
+            Statistics.recordHandoff(0, 0);
+        }
+        return result;
+    }
+
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    public boolean isDone() {
+        lock.lock();
+        try {
+            return completed;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package airport.utils;
+
+/**
+ *
+ * @author junyo
+ */
+
+import java.time.Duration;
+
+// Factor applied to every simulated operation time (landing, refuelling, boarding, ...).
+// 1 is real time; the load test uses 0 to skip the sleeps entirely, or e.g. 0.001 to turn
+// milliseconds into microseconds, so only the coordination between the threads is left.
+public class TimeScale {
+    private static volatile double scale = 1.0;
+
+    public static double getScale() {
+        return scale;
+    }
+
+    public static void setScale(double factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("Time scale cannot be negative: " + factor);
+        }
+        scale = factor;
+    }
+
+    // Thread.sleep for a simulated duration; with nothing left to sleep it only checks for interrupts
+    public static void sleep(long millis) throws InterruptedException {
+        double factor = scale;
+        if (factor == 1.0) {
+            Thread.sleep(millis);
+            return;
+        }
+        long nanos = (long) (millis * 1_000_000 * factor);
+        if (nanos > 0) {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } else if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}